@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator;
 
+import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.ReceiveMode;
 import com.microsoft.azure.servicebus.primitives.ConnectionStringBuilder;
@@ -10,6 +11,7 @@ import org.springframework.context.annotation.Profile;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IProcessedEnvelopeNotifier;
 
+import java.time.Instant;
 import java.util.UUID;
 
 public class FunctionalQueueConfig {
@@ -34,6 +36,30 @@ public class FunctionalQueueConfig {
                 // do nothing
             }
 
+            @Override
+            public void abandon(UUID lockToken) throws InterruptedException, ServiceBusException {
+                // do nothing
+            }
+
+            @Override
+            public long scheduleRedelivery(
+                IMessage message,
+                int redeliveryCount,
+                Instant deliveryTime
+            ) throws InterruptedException, ServiceBusException {
+                return 0;
+            }
+
+            @Override
+            public void cancelScheduledRedelivery(long sequenceNumber) {
+                // do nothing
+            }
+
+            @Override
+            public Instant renewLock(IMessage message) throws InterruptedException, ServiceBusException {
+                return Instant.now().plusSeconds(60);
+            }
+
             @Override
             public void deadLetter(
                 UUID lockToken,
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 import com.github.tomakehurst.wiremock.common.Slf4jNotifier;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.IMessageHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContextInitializer;
@@ -12,11 +13,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.MessageSender;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.ProcessedEnvelopeNotifier;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IProcessedEnvelopeNotifier;
 
+import java.time.Instant;
 import java.util.UUID;
 
-import static org.mockito.Mockito.mock;
 import static org.springframework.util.SocketUtils.findAvailableTcpPort;
 
 @Configuration
@@ -46,6 +47,26 @@ class IntegrationTestInitializer implements ApplicationContextInitializer<Config
                 // do nothing
             }
 
+            @Override
+            public void abandon(UUID lockToken) {
+                // do nothing
+            }
+
+            @Override
+            public long scheduleRedelivery(IMessage message, int redeliveryCount, Instant deliveryTime) {
+                return 0;
+            }
+
+            @Override
+            public void cancelScheduledRedelivery(long sequenceNumber) {
+                // do nothing
+            }
+
+            @Override
+            public Instant renewLock(IMessage message) {
+                return Instant.now().plusSeconds(60);
+            }
+
             @Override
             public void deadLetter(UUID lockToken, String reason, String description) {
                 // do nothing
@@ -54,7 +75,9 @@ class IntegrationTestInitializer implements ApplicationContextInitializer<Config
     }
 
     @Bean
-    public ProcessedEnvelopeNotifier processedEnvelopeNotifier() {
-        return mock(ProcessedEnvelopeNotifier.class);
+    public IProcessedEnvelopeNotifier processedEnvelopeNotifier() {
+        return envelopeId -> {
+            // do nothing
+        };
     }
 }
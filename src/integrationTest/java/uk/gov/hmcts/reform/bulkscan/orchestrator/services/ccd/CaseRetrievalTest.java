@@ -28,11 +28,14 @@ class CaseRetrievalTest {
     @Lazy
     private CoreCaseDataApi coreCaseDataApi;
 
+    @Autowired
+    private CcdCircuitBreakers circuitBreakers;
+
     @DisplayName("Should call to retrieve the case from ccd")
     @Test
     void should_call_to_retrieve_the_case_from_ccd() {
         // given
-        CaseRetriever caseRetriever = new CaseRetriever(factory, coreCaseDataApi);
+        CaseRetriever caseRetriever = new CaseRetriever(factory, coreCaseDataApi, circuitBreakers);
 
         // when
         caseRetriever.retrieve(JURISDICTION, CASE_REF);
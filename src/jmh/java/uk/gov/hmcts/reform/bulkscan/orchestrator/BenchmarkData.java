@@ -0,0 +1,121 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Synthetic envelopes and case data for benchmarks.
+ *
+ * <p>Document {@code i} has the same file name, control number and url wherever it is generated,
+ * so overlapping ranges produce duplicates.</p>
+ */
+public final class BenchmarkData {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String SCANNED_AT = "2019-01-01T10:00:00.000Z";
+
+    private BenchmarkData() {
+        // utility class
+    }
+
+    public static byte[] envelopeJson(String classification, int documentCount, int ocrFieldCount) {
+        ObjectNode envelope = objectMapper.createObjectNode()
+            .put("id", "eb9c3598-35fc-424e-b05a-902ee9f11d56")
+            .put("case_ref", "1539007368674134")
+            .put("po_box", "BULKSCAN PO BOX")
+            .put("jurisdiction", "BULKSCAN")
+            .put("classification", classification)
+            .put("zip_file_name", "01012019100000_benchmark.zip")
+            .put("delivery_date", SCANNED_AT)
+            .put("opening_date", SCANNED_AT);
+
+        ArrayNode documents = envelope.putArray("documents");
+        IntStream.range(0, documentCount).forEach(i -> documents.addObject()
+            .put("file_name", fileName(i))
+            .put("control_number", controlNumber(i))
+            .put("type", "other")
+            .put("subtype", "benchmark")
+            .put("scanned_at", SCANNED_AT)
+            .put("url", url(i))
+        );
+
+        ArrayNode ocrData = envelope.putArray("ocr_data");
+        IntStream.range(0, ocrFieldCount).forEach(i -> ocrData.addObject()
+            .put("metadata_field_name", "field_" + i)
+            .put("metadata_field_value", "value of OCR field number " + i)
+        );
+
+        try {
+            return objectMapper.writeValueAsBytes(envelope);
+        } catch (Exception exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    public static List<Document> documents(int firstIndex, int count) {
+        return IntStream
+            .range(firstIndex, firstIndex + count)
+            .mapToObj(i -> new Document(
+                fileName(i),
+                controlNumber(i),
+                "other",
+                null,
+                Instant.parse(SCANNED_AT),
+                url(i)
+            ))
+            .collect(toList());
+    }
+
+    /**
+     * Scanned documents in the shape CCD returns them in case data.
+     */
+    public static List<Map<String, Object>> ccdDocuments(int firstIndex, int count) {
+        return IntStream
+            .range(firstIndex, firstIndex + count)
+            .mapToObj(BenchmarkData::ccdDocument)
+            .collect(toList());
+    }
+
+    public static CaseDetails caseWithDocuments(int documentCount) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("scannedDocuments", ccdDocuments(0, documentCount));
+
+        return CaseDetails.builder().id(1539007368674134L).data(data).build();
+    }
+
+    private static Map<String, Object> ccdDocument(int index) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("fileName", fileName(index));
+        value.put("controlNumber", controlNumber(index));
+        value.put("type", "other");
+        value.put("scannedDate", "2019-01-01T10:00:00.000");
+        value.put("url", ImmutableMap.of("document_url", url(index)));
+
+        return ImmutableMap.of("id", "id" + index, "value", value);
+    }
+
+    private static String fileName(int index) {
+        return "doc" + index + ".pdf";
+    }
+
+    private static String controlNumber(int index) {
+        return String.format("%010d", index);
+    }
+
+    private static String url(int index) {
+        return "http://dm-store/documents/" + index;
+    }
+}
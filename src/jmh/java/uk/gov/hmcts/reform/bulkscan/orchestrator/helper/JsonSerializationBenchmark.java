@@ -0,0 +1,92 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ExceptionRecord;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.ExceptionRecordMapper;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.EnvelopeParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.ccdDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.envelopeJson;
+
+/**
+ * Per-call type resolution against pre-built readers and writers, with and without Afterburner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean afterburner;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader scannedDocumentReader;
+    private ObjectWriter exceptionRecordWriter;
+
+    private List<Map<String, Object>> ccdDocuments;
+    private ExceptionRecord exceptionRecord;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonSerialization.createObjectMapper(afterburner);
+        scannedDocumentReader = objectMapper.readerFor(ScannedDocument.class);
+        exceptionRecordWriter = objectMapper.writerFor(ExceptionRecord.class);
+
+        ccdDocuments = ccdDocuments(0, 100);
+        exceptionRecord = new ExceptionRecordMapper().mapEnvelope(
+            EnvelopeParser.parse(envelopeJson("EXCEPTION", 100, 100))
+        );
+    }
+
+    @Benchmark
+    public ScannedDocument[] convertScannedDocuments() {
+        ScannedDocument[] documents = new ScannedDocument[ccdDocuments.size()];
+
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = objectMapper.convertValue(ccdDocuments.get(i).get("value"), ScannedDocument.class);
+        }
+
+        return documents;
+    }
+
+    @Benchmark
+    public ScannedDocument[] readScannedDocuments() throws IOException {
+        ScannedDocument[] documents = new ScannedDocument[ccdDocuments.size()];
+
+        for (int i = 0; i < documents.length; i++) {
+            // same conversion as JsonSerialization.toScannedDocument, with this benchmark's mapper
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writeValue(buffer, ccdDocuments.get(i).get("value"));
+            documents[i] = scannedDocumentReader.readValue(buffer.asParser());
+        }
+
+        return documents;
+    }
+
+    @Benchmark
+    public byte[] writeExceptionRecord() throws IOException {
+        return objectMapper.writeValueAsBytes(exceptionRecord);
+    }
+
+    @Benchmark
+    public byte[] writeExceptionRecordWithWriter() throws IOException {
+        return exceptionRecordWriter.writeValueAsBytes(exceptionRecord);
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.caseWithDocuments;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScannedDocumentsHelperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int documentCount;
+
+    private CaseDetails caseDetails;
+
+    @Setup
+    public void setUp() {
+        caseDetails = caseWithDocuments(documentCount);
+    }
+
+    @Benchmark
+    public List<Document> getDocuments() {
+        return ScannedDocumentsHelper.getDocuments(caseDetails);
+    }
+}
@@ -0,0 +1,43 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ExceptionRecord;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.EnvelopeParser;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.envelopeJson;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExceptionRecordMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int documentCount;
+
+    @Param({"0", "20", "500"})
+    public int ocrFieldCount;
+
+    private final ExceptionRecordMapper mapper = new ExceptionRecordMapper();
+
+    private Envelope envelope;
+
+    @Setup
+    public void setUp() {
+        envelope = EnvelopeParser.parse(envelopeJson("EXCEPTION", documentCount, ocrFieldCount));
+    }
+
+    @Benchmark
+    public ExceptionRecord mapEnvelope() {
+        return mapper.mapEnvelope(envelope);
+    }
+}
@@ -0,0 +1,78 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseData;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.SupplementaryEvidence;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.caseWithDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.documents;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsHelper.getDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsHelper.getScannedDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.DocumentMapper.mapDocuments;
+
+/**
+ * Compares {@link SupplementaryEvidenceMapper} with the previous approach (mapping every document
+ * of the case and looking for duplicates in a nested loop) for cases with a growing number of documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SupplementaryEvidenceMapperBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int existingDocumentCount;
+
+    @Param({"1", "10", "50"})
+    public int envelopeDocumentCount;
+
+    private final SupplementaryEvidenceMapper mapper = new SupplementaryEvidenceMapper();
+
+    private CaseDetails caseDetails;
+    private List<Document> envelopeDocs;
+
+    @Setup
+    public void setUp() {
+        caseDetails = caseWithDocuments(existingDocumentCount);
+
+        // half of the envelope documents are already present in the case
+        envelopeDocs = documents(existingDocumentCount - envelopeDocumentCount / 2, envelopeDocumentCount);
+    }
+
+    @Benchmark
+    public CaseData indexed() {
+        return mapper.map(getScannedDocuments(caseDetails), envelopeDocs);
+    }
+
+    @Benchmark
+    public CaseData nestedLoop() {
+        List<Document> existingDocs = getDocuments(caseDetails);
+
+        Stream<Document> docsToAdd =
+            envelopeDocs
+                .stream()
+                .filter(d -> existingDocs.stream().noneMatch(e ->
+                    Objects.equals(d.url, e.url) || Objects.equals(d.controlNumber, e.controlNumber)
+                ));
+
+        return new SupplementaryEvidence(
+            emptyList(),
+            mapDocuments(Stream.concat(existingDocs.stream(), docsToAdd).collect(toList()))
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.ccdDocuments;
+
+/**
+ * Merging documents of an exception record into an existing case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentIndexBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int existingDocumentCount;
+
+    @Param({"1", "10", "50"})
+    public int exceptionRecordDocumentCount;
+
+    private List<Map<String, Object>> existingDocuments;
+    private List<Map<String, Object>> exceptionRecordDocuments;
+
+    @Setup
+    public void setUp() {
+        existingDocuments = ccdDocuments(0, existingDocumentCount);
+
+        // no duplicates - the path taken by every successful attachment
+        exceptionRecordDocuments = ccdDocuments(existingDocumentCount, exceptionRecordDocumentCount);
+    }
+
+    @Benchmark
+    public Set<String> findDuplicates() {
+        return DocumentIndex.of(exceptionRecordDocuments, existingDocuments).getDuplicates();
+    }
+
+    @Benchmark
+    public void attachDocuments(Blackhole blackhole) {
+        // everything the attach case callback needs from the documents
+        DocumentIndex index = DocumentIndex.of(exceptionRecordDocuments, existingDocuments);
+
+        blackhole.consume(index.getDuplicates());
+        blackhole.consume(index.getExceptionDocumentNumbers());
+        blackhole.consume(index.mergedDocuments());
+    }
+}
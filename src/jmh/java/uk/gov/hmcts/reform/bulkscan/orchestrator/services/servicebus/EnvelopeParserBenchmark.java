@@ -0,0 +1,42 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.BenchmarkData.envelopeJson;
+
+/**
+ * Parsing of queue messages - from small envelopes, through typical ones, to OCR-heavy ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnvelopeParserBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int documentCount;
+
+    @Param({"0", "20", "500"})
+    public int ocrFieldCount;
+
+    private byte[] message;
+
+    @Setup
+    public void setUp() {
+        message = envelopeJson("NEW_APPLICATION", documentCount, ocrFieldCount);
+    }
+
+    @Benchmark
+    public Envelope parse() {
+        return EnvelopeParser.parse(message);
+    }
+}
@@ -0,0 +1,192 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest.InMemoryEnvelopeQueue.CASE_REF;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest.LoadTestConfig.LATENCIES;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest.LoadTestConfig.SETTINGS;
+
+/**
+ * Runs the real envelope processor against in-memory Service Bus and WireMock CCD/IDAM.
+ *
+ * <p>Messages are generated at a fixed rate and picked up by as many reader threads as
+ * the queue client would run concurrently. The summary is logged and written to
+ * build/reports/load-test/summary.txt.</p>
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureWireMock
+@ActiveProfiles({"integration", "nosb"}) // CCD and IDAM on WireMock, no servicebus queue handler registration
+@ContextConfiguration(initializers = LoadTestConfig.class)
+@Import(LoadTestConfig.class)
+class EnvelopeProcessingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeProcessingLoadTest.class);
+
+    private static final String CASE_JSON = "{\"id\":" + CASE_REF + ",\"jurisdiction\":\"BULKSCAN\","
+        + "\"case_type_id\":\"Bulk_Scanned\",\"case_data\":{\"scannedDocuments\":[]}}";
+
+    private static final String EXCEPTION_RECORD_START_URL = "/caseworkers/640/jurisdictions/BULKSCAN"
+        + "/case-types/BULKSCAN_ExceptionRecord/event-triggers/createException/token";
+
+    private final AtomicBoolean generating = new AtomicBoolean(true);
+
+    @Autowired
+    private IMessageHandler processor;
+
+    @Autowired
+    private InMemoryEnvelopeQueue envelopeQueue;
+
+    @BeforeEach
+    void setUp() {
+        // not covered by the recorded mappings
+        givenThat(get("/cases/" + CASE_REF).willReturn(aResponse().withBody(CASE_JSON)));
+        givenThat(get(EXCEPTION_RECORD_START_URL).willReturn(aResponse().withBody(
+            "{\"case_details\":null,\"event_id\":\"createException\",\"token\":\"etoken\"}"
+        )));
+    }
+
+    @Test
+    void should_process_envelopes_at_target_rate() throws Exception {
+        log.info("Starting load test: {}", SETTINGS);
+
+        BlockingQueue<IMessage> backlog = new LinkedBlockingQueue<>();
+        ScheduledExecutorService generator = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService readers = Executors.newFixedThreadPool(SETTINGS.maxConcurrentCalls);
+
+        for (int i = 0; i < SETTINGS.maxConcurrentCalls; i++) {
+            readers.submit(() -> readMessages(backlog));
+        }
+
+        long start = System.nanoTime();
+
+        generator.scheduleAtFixedRate(
+            () -> backlog.add(envelopeQueue.nextMessage()),
+            0,
+            TimeUnit.SECONDS.toNanos(1) / SETTINGS.rate,
+            TimeUnit.NANOSECONDS
+        );
+        TimeUnit.SECONDS.sleep(SETTINGS.durationSeconds);
+        generator.shutdownNow();
+        generating.set(false);
+
+        // let the processor catch up with the backlog
+        readers.shutdown();
+        boolean drained = readers.awaitTermination(2L * SETTINGS.durationSeconds, TimeUnit.SECONDS)
+            && backlog.isEmpty();
+        readers.shutdownNow();
+
+        double elapsedSeconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        String summary = summary(elapsedSeconds, drained);
+        log.info("Load test finished\n{}", summary);
+        writeReport(summary);
+
+        assertThat(envelopeQueue.sent()).isPositive();
+    }
+
+    private void readMessages(BlockingQueue<IMessage> backlog) {
+        while (!Thread.currentThread().isInterrupted() && (generating.get() || !backlog.isEmpty())) {
+            IMessage message = backlog.poll();
+
+            if (message == null) {
+                sleepBriefly();
+                continue;
+            }
+
+            try {
+                processor.onMessageAsync(message).join();
+            } catch (RuntimeException exc) {
+                log.error("Processor failed for message {}", message.getMessageId(), exc);
+            } finally {
+                envelopeQueue.processingFinished(message);
+            }
+        }
+    }
+
+    private String summary(double elapsedSeconds, boolean drained) {
+        long finished = envelopeQueue.completed()
+            + envelopeQueue.deadLettered()
+            + envelopeQueue.leftForRedelivery()
+            + envelopeQueue.abandoned();
+
+        StringBuilder summary = new StringBuilder()
+            .append("Settings: ").append(SETTINGS).append('\n')
+            .append(String.format(
+                "Sent: %d, completed: %d, dead-lettered: %d, left for redelivery: %d, abandoned: %d%n",
+                envelopeQueue.sent(),
+                envelopeQueue.completed(),
+                envelopeQueue.deadLettered(),
+                envelopeQueue.leftForRedelivery(),
+                envelopeQueue.abandoned()
+            ))
+            .append(String.format("Throughput: %.1f envelopes/s over %.1fs%s%n",
+                finished / elapsedSeconds,
+                elapsedSeconds,
+                drained ? "" : " (backlog not drained in time)"
+            ))
+            .append(String.format(
+                "%-55s %8s %10s %10s %10s %10s%n",
+                "Stage", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"
+            ));
+
+        for (Map.Entry<String, LatencyRecorder.Summary> stage : LATENCIES.summarise().entrySet()) {
+            LatencyRecorder.Summary stats = stage.getValue();
+            summary.append(String.format("%-55s %8d %10.1f %10.1f %10.1f %10.1f%n",
+                stage.getKey(),
+                stats.count,
+                stats.p50,
+                stats.p95,
+                stats.p99,
+                stats.max
+            ));
+        }
+
+        return summary.toString();
+    }
+
+    private static void writeReport(String summary) throws IOException {
+        Path reportDir = Paths.get(System.getProperty("loadtest.report-dir", "build/reports/load-test"));
+        Files.createDirectories(reportDir);
+        Files.write(reportDir.resolve("summary.txt"), summary.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sleepBriefly() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+
+/**
+ * Adds latency to every stubbed response and turns a share of CCD responses into server errors.
+ */
+class FaultInjectingTransformer extends ResponseDefinitionTransformer {
+
+    private final int ccdLatencyMillis;
+    private final double ccdErrorRate;
+    private final int idamLatencyMillis;
+
+    FaultInjectingTransformer(int ccdLatencyMillis, double ccdErrorRate, int idamLatencyMillis) {
+        this.ccdLatencyMillis = ccdLatencyMillis;
+        this.ccdErrorRate = ccdErrorRate;
+        this.idamLatencyMillis = idamLatencyMillis;
+    }
+
+    @Override
+    public ResponseDefinition transform(
+        Request request,
+        ResponseDefinition responseDefinition,
+        FileSource files,
+        Parameters parameters
+    ) {
+        if (!isCcdRequest(request)) {
+            return like(responseDefinition).withFixedDelay(idamLatencyMillis).build();
+        } else if (ThreadLocalRandom.current().nextDouble() < ccdErrorRate) {
+            return aResponse().withStatus(500).withFixedDelay(ccdLatencyMillis).build();
+        } else {
+            return like(responseDefinition).withFixedDelay(ccdLatencyMillis).build();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "fault-injecting-transformer";
+    }
+
+    private static boolean isCcdRequest(Request request) {
+        return request.getUrl().startsWith("/caseworkers/") || request.getUrl().startsWith("/cases/");
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.Message;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelopeJson;
+
+/**
+ * Stands in for the envelopes queue: creates synthetic messages and records what happens to them.
+ */
+class InMemoryEnvelopeQueue implements IMessageOperations {
+
+    static final String CASE_REF = "1539007368674134";
+
+    private final double supplementaryEvidenceRatio;
+    private final LatencyRecorder latencies;
+
+    private final Map<UUID, Long> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong leftForRedelivery = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+
+    InMemoryEnvelopeQueue(double supplementaryEvidenceRatio, LatencyRecorder latencies) {
+        this.supplementaryEvidenceRatio = supplementaryEvidenceRatio;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Creates the next message. Latency of the message is measured from this moment,
+     * so time spent waiting for a free processing slot is included.
+     */
+    IMessage nextMessage() {
+        boolean supplementaryEvidence = ThreadLocalRandom.current().nextDouble() < supplementaryEvidenceRatio;
+
+        String envelopeId = UUID.randomUUID().toString();
+        byte[] body = supplementaryEvidence
+            ? envelopeJson(Classification.SUPPLEMENTARY_EVIDENCE, CASE_REF, envelopeId)
+            : envelopeJson(Classification.EXCEPTION, "", envelopeId);
+
+        SyntheticMessage message = new SyntheticMessage(body, UUID.randomUUID());
+        message.setMessageId(envelopeId);
+
+        inFlight.put(message.getLockToken(), System.nanoTime());
+        sent.incrementAndGet();
+
+        return message;
+    }
+
+    @Override
+    public void complete(UUID lockToken) {
+        finish(lockToken, "end-to-end.completed");
+        completed.incrementAndGet();
+    }
+
+    @Override
+    public void abandon(UUID lockToken) {
+        finish(lockToken, "end-to-end.abandoned");
+        abandoned.incrementAndGet();
+    }
+
+    @Override
+    public long scheduleRedelivery(IMessage message, int redeliveryCount, Instant deliveryTime) {
+        // the copy is not delivered again - the original counts as left for redelivery
+        finish(message.getLockToken(), "end-to-end.scheduled-for-redelivery");
+        leftForRedelivery.incrementAndGet();
+        return 0;
+    }
+
+    @Override
+    public void cancelScheduledRedelivery(long sequenceNumber) {
+        // copies are not delivered, so there's nothing to cancel
+    }
+
+    @Override
+    public Instant renewLock(IMessage message) {
+        // locks of in-memory messages never expire
+        return Instant.MAX;
+    }
+
+    @Override
+    public void deadLetter(UUID lockToken, String reason, String description) {
+        finish(lockToken, "end-to-end.dead-lettered");
+        deadLettered.incrementAndGet();
+    }
+
+    /**
+     * Called once the processor is done with the message. Messages not completed, dead-lettered
+     * nor abandoned would return to the queue once their lock expires.
+     */
+    void processingFinished(IMessage message) {
+        if (inFlight.containsKey(message.getLockToken())) {
+            finish(message.getLockToken(), "end-to-end.left-for-redelivery");
+            leftForRedelivery.incrementAndGet();
+        }
+    }
+
+    long sent() {
+        return sent.get();
+    }
+
+    long completed() {
+        return completed.get();
+    }
+
+    long deadLettered() {
+        return deadLettered.get();
+    }
+
+    long leftForRedelivery() {
+        return leftForRedelivery.get();
+    }
+
+    long abandoned() {
+        return abandoned.get();
+    }
+
+    private void finish(UUID lockToken, String outcome) {
+        Long startNanos = inFlight.remove(lockToken);
+
+        if (startNanos != null) {
+            latencies.record(outcome, startNanos);
+        }
+    }
+
+    private static class SyntheticMessage extends Message {
+
+        private final UUID lockToken;
+
+        SyntheticMessage(byte[] body, UUID lockToken) {
+            super(body);
+            this.lockToken = lockToken;
+        }
+
+        @Override
+        public UUID getLockToken() {
+            return lockToken;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latencies of named stages. All samples are kept - load test runs are short.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Queue<Long>> samples = new ConcurrentHashMap<>();
+
+    void record(String stage, long startNanos) {
+        samples
+            .computeIfAbsent(stage, key -> new ConcurrentLinkedQueue<>())
+            .add(System.nanoTime() - startNanos);
+    }
+
+    Map<String, Summary> summarise() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        samples.forEach((stage, values) -> summaries.put(stage, new Summary(values)));
+
+        return summaries;
+    }
+
+    static final class Summary {
+
+        final int count;
+        final double p50;
+        final double p95;
+        final double p99;
+        final double max;
+
+        private Summary(Queue<Long> values) {
+            long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+
+            this.count = sorted.length;
+            this.p50 = percentile(sorted, 0.50);
+            this.p95 = percentile(sorted, 0.95);
+            this.p99 = percentile(sorted, 0.99);
+            this.max = count == 0 ? 0 : toMillis(sorted[count - 1]);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+            return toMillis(sorted[Math.max(index, 0)]);
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
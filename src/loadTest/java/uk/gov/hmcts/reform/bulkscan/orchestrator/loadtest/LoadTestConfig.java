@@ -0,0 +1,70 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import com.github.tomakehurst.wiremock.common.Slf4jNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IProcessedEnvelopeNotifier;
+
+import static org.springframework.util.SocketUtils.findAvailableTcpPort;
+
+/**
+ * Replaces Service Bus with in-memory stand-ins. CCD and IDAM are served by WireMock
+ * from the stubs in src/test/resources/mappings, with latency and errors injected.
+ */
+@TestConfiguration
+class LoadTestConfig implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    static final LoadTestSettings SETTINGS = new LoadTestSettings();
+
+    // shared with the bean post processor, which is created before any other bean
+    static final LatencyRecorder LATENCIES = new LatencyRecorder();
+
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+        System.setProperty("wiremock.port", Integer.toString(findAvailableTcpPort()));
+    }
+
+    @Bean
+    public Options options(@Value("${wiremock.port}") int port) {
+        return WireMockConfiguration
+            .options()
+            .port(port)
+            .containerThreads(SETTINGS.rate * 2 + 20)
+            .extensions(new FaultInjectingTransformer(
+                SETTINGS.ccdLatencyMillis,
+                SETTINGS.ccdErrorRate,
+                SETTINGS.idamLatencyMillis
+            ))
+            .notifier(new Slf4jNotifier(false));
+    }
+
+    @Bean
+    public static StageTimingPostProcessor stageTimingPostProcessor() {
+        return new StageTimingPostProcessor(LATENCIES);
+    }
+
+    @Bean
+    public InMemoryEnvelopeQueue envelopeQueue() {
+        return new InMemoryEnvelopeQueue(SETTINGS.supplementaryEvidenceRatio, LATENCIES);
+    }
+
+    @Bean
+    public IProcessedEnvelopeNotifier processedEnvelopeNotifier() {
+        return envelopeId -> {
+            long start = System.nanoTime();
+
+            try {
+                Thread.sleep(SETTINGS.notificationLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                LATENCIES.record("ProcessedEnvelopeNotifier.notify", start);
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+/**
+ * Load test parameters. Each can be overridden with a system property, e.g.
+ * {@code ./gradlew loadTest -Dloadtest.rate=50 -Dloadtest.ccd-error-rate=0.05}.
+ */
+final class LoadTestSettings {
+
+    /**
+     * Envelopes generated per second.
+     */
+    final int rate = intProperty("loadtest.rate", 20);
+
+    final int durationSeconds = intProperty("loadtest.duration-seconds", 30);
+
+    /**
+     * Envelopes being processed at the same time - what the queue client allows with max concurrent calls.
+     */
+    final int maxConcurrentCalls = intProperty("loadtest.max-concurrent-calls", 4);
+
+    /**
+     * Share of supplementary evidence envelopes. The rest are exception records.
+     */
+    final double supplementaryEvidenceRatio = doubleProperty("loadtest.supplementary-evidence-ratio", 0.5);
+
+    final int ccdLatencyMillis = intProperty("loadtest.ccd-latency-ms", 50);
+
+    /**
+     * Share of CCD requests answered with an internal server error.
+     */
+    final double ccdErrorRate = doubleProperty("loadtest.ccd-error-rate", 0.0);
+
+    final int idamLatencyMillis = intProperty("loadtest.idam-latency-ms", 20);
+
+    final int notificationLatencyMillis = intProperty("loadtest.notification-latency-ms", 10);
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, Integer.toString(defaultValue)));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        return Double.parseDouble(System.getProperty(name, Double.toString(defaultValue)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "rate=%d/s, duration=%ds, maxConcurrentCalls=%d, supplementaryEvidenceRatio=%.2f, "
+                + "ccdLatency=%dms, ccdErrorRate=%.2f, idamLatency=%dms, notificationLatency=%dms",
+            rate,
+            durationSeconds,
+            maxConcurrentCalls,
+            supplementaryEvidenceRatio,
+            ccdLatencyMillis,
+            ccdErrorRate,
+            idamLatencyMillis,
+            notificationLatencyMillis
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times every call made through the HTTP clients of CCD, IDAM and S2S.
+ * Each client method is a separate stage, e.g. {@code CoreCaseDataApi.submitEventForCaseWorker}.
+ */
+class StageTimingPostProcessor implements BeanPostProcessor {
+
+    private static final String[] TIMED_PACKAGES = {
+        "uk.gov.hmcts.reform.ccd.client",
+        "uk.gov.hmcts.reform.idam.client",
+        "uk.gov.hmcts.reform.authorisation"
+    };
+
+    private final LatencyRecorder latencies;
+
+    StageTimingPostProcessor(LatencyRecorder latencies) {
+        this.latencies = latencies;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // feign clients are JDK proxies of the client interface
+        if (!Proxy.isProxyClass(bean.getClass()) || !isTimedClient(bean.getClass().getInterfaces())) {
+            return bean;
+        }
+
+        Class<?>[] interfaces = bean.getClass().getInterfaces();
+        String clientName = interfaces[0].getSimpleName();
+
+        return Proxy.newProxyInstance(
+            bean.getClass().getClassLoader(),
+            interfaces,
+            (proxy, method, args) -> {
+                long start = System.nanoTime();
+
+                try {
+                    return method.invoke(bean, args);
+                } catch (InvocationTargetException exc) {
+                    throw exc.getCause();
+                } finally {
+                    latencies.record(clientName + "." + method.getName(), start);
+                }
+            }
+        );
+    }
+
+    private static boolean isTimedClient(Class<?>[] interfaces) {
+        for (Class<?> type : interfaces) {
+            for (String timedPackage : TIMED_PACKAGES) {
+                if (type.getName().startsWith(timedPackage)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
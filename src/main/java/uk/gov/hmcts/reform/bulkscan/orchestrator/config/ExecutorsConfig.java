@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pools used by the application.
+ *
+ * <p>All pools are bounded. When a pool and its queue are full the task is rejected with
+ * {@link java.util.concurrent.RejectedExecutionException}, instead of running on the calling thread -
+ * callers are reader, lane, scheduler and request threads, which must not get stuck in slow IDAM or CCD calls.
+ * Each caller handles the rejection: envelopes are scheduled for redelivery, callbacks are answered
+ * with an error and background IDAM work is skipped until the next time.</p>
+ */
+@Configuration
+public class ExecutorsConfig {
+
+    @Bean(name = "envelope-processing", destroyMethod = "shutdown")
+    public ExecutorService envelopeProcessingExecutor(
+        @Value("${envelope-processing.thread-count}") int threadCount,
+        @Value("${envelope-processing.queue-capacity}") int queueCapacity
+    ) {
+        return boundedExecutor("envelope-processing-%d", threadCount, queueCapacity);
+    }
+
+    @Bean(name = "ccd-callback", destroyMethod = "shutdown")
+    public ExecutorService ccdCallbackExecutor(
+        @Value("${ccd-callback.thread-count}") int threadCount,
+        @Value("${ccd-callback.queue-capacity}") int queueCapacity
+    ) {
+        return boundedExecutor("ccd-callback-%d", threadCount, queueCapacity);
+    }
+
+    @Bean(name = "ccd-callback-handler", destroyMethod = "shutdown")
+    public ExecutorService ccdCallbackHandlerExecutor(
+        @Value("${ccd-callback.handler.thread-count}") int threadCount,
+        @Value("${ccd-callback.handler.queue-capacity}") int queueCapacity
+    ) {
+        return boundedExecutor("ccd-callback-handler-%d", threadCount, queueCapacity);
+    }
+
+    @Bean(name = "ccd-callback-timeout", destroyMethod = "shutdown")
+    public ScheduledExecutorService ccdCallbackTimeoutScheduler() {
+        // only answers timed out callbacks - never waits for them
+        return Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("ccd-callback-timeout-%d").build()
+        );
+    }
+
+    @Bean(name = "idam-token-refresh", destroyMethod = "shutdown")
+    public ExecutorService idamTokenRefreshExecutor() {
+        // refreshes are rare and at most one per jurisdiction runs at a time
+        return boundedExecutor("idam-token-refresh-%d", 2, 10);
+    }
+
+    @Bean(name = "idam-config-check", destroyMethod = "shutdown")
+    public ExecutorService idamConfigCheckExecutor(
+        @Value("${idam.config-status.thread-count}") int threadCount
+    ) {
+        // one check per configured jurisdiction, run every refresh interval
+        return boundedExecutor("idam-config-check-%d", threadCount, 20);
+    }
+
+    @Bean(name = "message-lock-renewal", destroyMethod = "shutdown")
+    public ScheduledExecutorService messageLockRenewalScheduler(
+        @Value("${azure.servicebus.envelopes.lock-renewal.thread-count}") int threadCount
+    ) {
+        // renewals are short calls, made once per renewal interval for each message being processed
+        return Executors.newScheduledThreadPool(
+            threadCount,
+            new ThreadFactoryBuilder().setNameFormat("message-lock-renewal-%d").build()
+        );
+    }
+
+    private static ExecutorService boundedExecutor(String nameFormat, int threadCount, int queueCapacity) {
+        return new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat(nameFormat).build(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
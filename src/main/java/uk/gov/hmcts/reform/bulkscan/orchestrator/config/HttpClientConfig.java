@@ -0,0 +1,53 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Pooled Apache HTTP client is used by all Feign clients (CCD, IDAM, S2S).
+ *
+ * <p>The client and its connection pool are created by Spring Cloud OpenFeign from {@code feign.httpclient}
+ * settings, timeouts are set per client in {@code feign.client.config}. This configuration only exposes
+ * the state of the pool as metrics.</p>
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            HttpClientConnectionManager manager = connectionManager.getIfAvailable();
+
+            if (manager instanceof PoolingHttpClientConnectionManager) {
+                PoolingHttpClientConnectionManager pool = (PoolingHttpClientConnectionManager) manager;
+
+                registerPoolGauge(registry, pool, "leased", PoolStats::getLeased);
+                registerPoolGauge(registry, pool, "available", PoolStats::getAvailable);
+                registerPoolGauge(registry, pool, "pending", PoolStats::getPending);
+                registerPoolGauge(registry, pool, "max", PoolStats::getMax);
+            }
+        };
+    }
+
+    private static void registerPoolGauge(
+        MeterRegistry registry,
+        PoolingHttpClientConnectionManager pool,
+        String state,
+        ToIntFunction<PoolStats> value
+    ) {
+        Gauge
+            .builder("http.client.pool.connections", pool, manager -> value.applyAsInt(manager.getTotalStats()))
+            .description("Connections of the HTTP client pool shared by Feign clients")
+            .tag("state", state)
+            .register(registry);
+    }
+}
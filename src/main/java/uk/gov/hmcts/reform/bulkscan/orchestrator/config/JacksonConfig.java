@@ -0,0 +1,36 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization;
+
+/**
+ * Registers Afterburner with the Spring managed object mapper, which serialises CCD case data
+ * sent by Feign clients and the controller payloads.
+ *
+ * <p>Switched on and off together with {@link JsonSerialization}, see {@link JsonSerialization#isAfterburnerEnabled()}.
+ * The switch is not read from Spring properties, which the static readers can't see.</p>
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    @Conditional(AfterburnerEnabled.class)
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    static class AfterburnerEnabled implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return JsonSerialization.isAfterburnerEnabled();
+        }
+    }
+}
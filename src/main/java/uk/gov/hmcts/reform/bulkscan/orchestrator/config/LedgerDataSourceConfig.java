@@ -0,0 +1,19 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Sets up the {@code spring.datasource} database, used by the jdbc envelope ledger store only.
+ * With the default in-memory store the application doesn't need a database, so the datasource
+ * is excluded from auto-configuration (see application.yaml).
+ *
+ * <p>Ledger schema is created by Flyway migrations from {@code db/migration}, before the store is used.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "envelope-ledger.store", havingValue = "jdbc")
+@Import(DataSourceAutoConfiguration.class)
+public class LedgerDataSourceConfig {
+}
@@ -1,5 +1,7 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 
+import com.microsoft.azure.servicebus.ClientFactory;
+import com.microsoft.azure.servicebus.IMessageReceiver;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.ReceiveMode;
 import com.microsoft.azure.servicebus.primitives.ConnectionStringBuilder;
@@ -21,6 +23,19 @@ public class QueueClientsConfig {
         return createQueueClient(connectionString, queueName);
     }
 
+    // receives, settles and renews locks of envelope messages in batch receive mode.
+    // A lock can only be renewed through the link that holds it, so the client is not used otherwise
+    @Bean("envelopes-receiver")
+    public IMessageReceiver envelopesReceiver(
+        @Value("${azure.servicebus.envelopes.connection-string}") String connectionString,
+        @Value("${azure.servicebus.envelopes.queue-name}") String queueName
+    ) throws InterruptedException, ServiceBusException {
+        return ClientFactory.createMessageReceiverFromConnectionStringBuilder(
+            new ConnectionStringBuilder(connectionString, queueName),
+            ReceiveMode.PEEKLOCK
+        );
+    }
+
     @Bean("processed-envelopes")
     public QueueClient processedEnvelopesQueueClient(
         @Value("${azure.servicebus.processed-envelopes.connection-string}") String connectionString,
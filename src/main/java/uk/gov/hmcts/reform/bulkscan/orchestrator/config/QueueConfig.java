@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.microsoft.azure.servicebus.IMessageHandler;
+import com.microsoft.azure.servicebus.IMessageReceiver;
 import com.microsoft.azure.servicebus.MessageHandlerOptions;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.primitives.MessagingEntityNotFoundException;
@@ -10,8 +11,15 @@ import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.EnvelopeBatchProcessor;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.EnvelopeBatchReceiver;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.AdaptiveConcurrencyLimit;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.ConcurrencyLimitingMessageHandler;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.LockRenewingMessageHandler;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageLockRenewer;
 
 import java.time.Duration;
 import java.util.concurrent.ExecutorService;
@@ -19,10 +27,26 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 /**
  * Registers handler with Azure Service bus to read messages when
  * they are available in the queue.
+ *
+ * <p>Number of messages handled in parallel is controlled by {@code max-concurrent-calls}
+ * and the size of the reader pool. {@link uk.gov.hmcts.reform.bulkscan.orchestrator.services.EnvelopeEventProcessor}
+ * and its collaborators are stateless, so they can be safely called from several reader threads.</p>
+ *
+ * <p>Unless disabled, messages are processed only up to the {@link AdaptiveConcurrencyLimit},
+ * with {@code max-concurrent-calls} being its upper bound.</p>
+ *
+ * <p>Message locks are renewed through the client that has received the message - a lock can't be
+ * renewed through another link. Queue client renews locks of the messages it hands over itself,
+ * for no longer than the lock renewal max duration, while {@link MessageLockRenewer} keeps track
+ * of them, so that lost locks are known to the processor.</p>
+ *
+ * <p>In batch receive mode no handler is registered. Messages are received in batches
+ * by {@link EnvelopeBatchReceiver} instead, see {@link EnvelopeBatchProcessor}.</p>
  */
 @Configuration
 @Profile("!nosb") // do not register handler for the nosb (test) profile
@@ -32,24 +56,76 @@ public class QueueConfig {
 
     private final QueueClient envelopesQueueClient;
     private final IMessageHandler messageHandler;
+    private final int maxConcurrentCalls;
+    private final int readerThreadCount;
+    private final int prefetchCount;
+    private final Duration lockRenewalMaxDuration;
+
+    private final IMessageReceiver envelopesReceiver;
+    private final EnvelopeBatchProcessor batchProcessor;
+    private final boolean batchReceiveEnabled;
+    private final int batchSize;
+    private final long batchWaitTimeMillis;
+
+    private EnvelopeBatchReceiver batchReceiver;
 
     public QueueConfig(
         @Qualifier("envelopes") QueueClient envelopesQueueClient,
-        IMessageHandler messageHandler
+        @Qualifier("envelopes-receiver") IMessageReceiver envelopesReceiver,
+        IMessageHandler messageHandler,
+        EnvelopeBatchProcessor batchProcessor,
+        AdaptiveConcurrencyLimit concurrencyLimit,
+        MessageLockRenewer lockRenewer,
+        @Value("${envelope-processing.concurrency-limit.enabled}") boolean concurrencyLimitEnabled,
+        @Value("${azure.servicebus.envelopes.max-concurrent-calls}") int maxConcurrentCalls,
+        @Value("${azure.servicebus.envelopes.reader-thread-count}") int readerThreadCount,
+        @Value("${azure.servicebus.envelopes.prefetch-count}") int prefetchCount,
+        @Value("${azure.servicebus.envelopes.lock-renewal.max-duration-minutes}") long lockRenewalMaxDurationMinutes,
+        @Value("${azure.servicebus.envelopes.batch-receive.enabled}") boolean batchReceiveEnabled,
+        @Value("${azure.servicebus.envelopes.batch-receive.batch-size}") int batchSize,
+        @Value("${azure.servicebus.envelopes.batch-receive.wait-time-millis}") long batchWaitTimeMillis
     ) {
         this.envelopesQueueClient = envelopesQueueClient;
-        this.messageHandler = messageHandler;
+        this.envelopesReceiver = envelopesReceiver;
+        this.batchProcessor = batchProcessor;
+        this.batchReceiveEnabled = batchReceiveEnabled;
+        this.batchSize = batchSize;
+        this.batchWaitTimeMillis = batchWaitTimeMillis;
+        this.messageHandler = new LockRenewingMessageHandler(
+            concurrencyLimitEnabled
+                ? new ConcurrencyLimitingMessageHandler(messageHandler, concurrencyLimit)
+                : messageHandler,
+            lockRenewer
+        );
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.readerThreadCount = readerThreadCount;
+        this.prefetchCount = prefetchCount;
+        this.lockRenewalMaxDuration = Duration.ofMinutes(lockRenewalMaxDurationMinutes);
     }
 
     @PostConstruct
     public void initialise() throws ServiceBusException, InterruptedException {
-        // Note: single threaded queue reader for now to keep it simple.
+        if (batchReceiveEnabled) {
+            startBatchReceiver();
+            return;
+        }
+
         ThreadFactory namedThreadFactory =
             new ThreadFactoryBuilder().setNameFormat("queue-reader-%d").build();
-        ExecutorService executorService = Executors.newSingleThreadExecutor(
+        ExecutorService executorService = Executors.newFixedThreadPool(
+            readerThreadCount,
             namedThreadFactory
         );
 
+        envelopesQueueClient.setPrefetchCount(prefetchCount);
+
+        log.info(
+            "Registering envelopes queue handler. Max concurrent calls: {}, reader threads: {}, prefetch count: {}",
+            maxConcurrentCalls,
+            readerThreadCount,
+            prefetchCount
+        );
+
         // Note: retry init otherwise AKS setup fails as a queue is
         // created in that environment only after deployment is complete.
         int tries = 0;
@@ -57,7 +133,11 @@ public class QueueConfig {
             try {
                 envelopesQueueClient.registerMessageHandler(
                     messageHandler,
-                    new MessageHandlerOptions(1, false, Duration.ofMinutes(5)),
+                    new MessageHandlerOptions(
+                        maxConcurrentCalls,
+                        false,
+                        lockRenewalMaxDuration // tracked by MessageLockRenewer
+                    ),
                     executorService
                 );
 
@@ -77,4 +157,35 @@ public class QueueConfig {
         }
     }
 
+    @PreDestroy
+    public void stopBatchReceiver() {
+        if (batchReceiver != null) {
+            batchReceiver.stop();
+        }
+    }
+
+    private void startBatchReceiver() throws ServiceBusException {
+        envelopesReceiver.setPrefetchCount(prefetchCount);
+
+        log.info(
+            "Starting envelopes queue batch receiver. Batch size: {}, wait time: {} ms, prefetch count: {}",
+            batchSize,
+            batchWaitTimeMillis,
+            prefetchCount
+        );
+
+        batchReceiver = new EnvelopeBatchReceiver(
+            envelopesReceiver,
+            batchProcessor,
+            batchSize,
+            Duration.ofMillis(batchWaitTimeMillis)
+        );
+
+        new ThreadFactoryBuilder()
+            .setNameFormat("queue-batch-reader-%d")
+            .setDaemon(true)
+            .build()
+            .newThread(batchReceiver)
+            .start();
+    }
 }
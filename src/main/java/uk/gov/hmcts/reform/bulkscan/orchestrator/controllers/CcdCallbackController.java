@@ -1,30 +1,93 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.controllers;
 
 import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.AttachCaseCallbackService;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackDeadline;
 import uk.gov.hmcts.reform.ccd.client.model.AboutToStartOrSubmitCallbackResponse;
 import uk.gov.hmcts.reform.ccd.client.model.CallbackRequest;
 import uk.gov.hmcts.reform.ccd.client.model.CallbackResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.validation.constraints.NotNull;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.ok;
 
+/**
+ * Handles CCD callbacks off the request threads, so that slow CCD calls don't use up the request pool.
+ *
+ * <p>Callbacks run on a bounded pool. Ones that can't be taken, or don't complete within the timeout,
+ * are answered with an error CCD shows to the caseworker. Timed out callbacks don't submit anything
+ * to CCD afterwards. When the timeout comes while a callback is already submitting its changes,
+ * the response is left to the submission, which gets up to the submit grace period on top of the timeout.
+ * Timeouts are run by a scheduler, so no thread waits for a callback to finish.</p>
+ */
 @RestController
 public class CcdCallbackController {
 
+    private static final Logger log = LoggerFactory.getLogger(CcdCallbackController.class);
+
+    static final String IN_FLIGHT_GAUGE = "ccd.callback.in_flight";
+    static final String TIMEOUT_COUNTER = "ccd.callback.timeouts";
+    static final String REJECTED_COUNTER = "ccd.callback.rejected";
+
+    static final String TIMEOUT_ERROR = "Internal Error: callback timed out, please try again";
+    static final String EMPTY_CALLBACK_ERROR = "Internal Error: callback or case details were empty";
+    static final String REJECTED_ERROR = "Internal Error: too many callbacks in progress, please try again";
+
     private final AttachCaseCallbackService attachCaseCallbackService;
+    private final Executor callbackHandlerExecutor;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final long timeoutMillis;
+    private final long submitGraceMillis;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter timeouts;
+    private final Counter rejections;
 
     @Autowired
-    public CcdCallbackController(AttachCaseCallbackService attachCaseCallbackService) {
+    public CcdCallbackController(
+        AttachCaseCallbackService attachCaseCallbackService,
+        @Qualifier("ccd-callback-handler") Executor callbackHandlerExecutor,
+        @Qualifier("ccd-callback-timeout") ScheduledExecutorService timeoutScheduler,
+        MeterRegistry meterRegistry,
+        @Value("${ccd-callback.handler.timeout-millis}") long timeoutMillis,
+        @Value("${ccd-callback.handler.submit-grace-millis}") long submitGraceMillis
+    ) {
         this.attachCaseCallbackService = attachCaseCallbackService;
+        this.callbackHandlerExecutor = callbackHandlerExecutor;
+        this.timeoutScheduler = timeoutScheduler;
+        this.timeoutMillis = timeoutMillis;
+        this.submitGraceMillis = submitGraceMillis;
+
+        Gauge
+            .builder(IN_FLIGHT_GAUGE, inFlight, AtomicInteger::get)
+            .description("CCD callbacks accepted and not yet processed")
+            .register(meterRegistry);
+
+        this.timeouts = meterRegistry.counter(TIMEOUT_COUNTER);
+        this.rejections = meterRegistry.counter(REJECTED_COUNTER);
     }
 
     @PostMapping(
@@ -32,11 +95,92 @@ public class CcdCallbackController {
         consumes = APPLICATION_JSON_VALUE,
         produces = APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<CallbackResponse> handleCallback(@RequestBody CallbackRequest callback) {
+    public DeferredResult<ResponseEntity<CallbackResponse>> handleCallback(@RequestBody CallbackRequest callback) {
+        // request itself lasts longer than the callback, so that a submission in progress can still respond
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            new DeferredResult<>(timeoutMillis + submitGraceMillis);
+
         if (callback != null && callback.getCaseDetails() != null) {
-            return respondWithErrorList(attachCaseCallbackService.process(callback.getCaseDetails()));
+            CallbackDeadline deadline = new CallbackDeadline();
+
+            ScheduledFuture<?> timeout = timeoutScheduler.schedule(
+                () -> timeOut(callback, deadline, result),
+                timeoutMillis,
+                MILLISECONDS
+            );
+
+            result.onTimeout(() -> {
+                log.warn(
+                    "Attach case callback still submitting to CCD after grace period. Case ID: {}",
+                    callback.getCaseDetails().getId()
+                );
+                timeouts.increment();
+                result.setResult(respondWithErrorList(ImmutableList.of(TIMEOUT_ERROR)));
+            });
+
+            process(callback, deadline, result).whenComplete((done, exception) -> timeout.cancel(false));
         } else {
-            return respondWithErrorList(ImmutableList.of("Internal Error: callback or case details were empty"));
+            result.setResult(respondWithErrorList(ImmutableList.of(EMPTY_CALLBACK_ERROR)));
+        }
+
+        return result;
+    }
+
+    private void timeOut(
+        CallbackRequest callback,
+        CallbackDeadline deadline,
+        DeferredResult<ResponseEntity<CallbackResponse>> result
+    ) {
+        if (deadline.expire()) {
+            log.warn("Attach case callback timed out. Case ID: {}", callback.getCaseDetails().getId());
+            timeouts.increment();
+            result.setResult(respondWithErrorList(ImmutableList.of(TIMEOUT_ERROR)));
+        } else {
+            // the result is set once processing is done
+            log.info(
+                "Attach case callback timed out while submitting to CCD. Leaving response to it. Case ID: {}",
+                callback.getCaseDetails().getId()
+            );
+        }
+    }
+
+    /**
+     * Starts processing of the callback.
+     *
+     * @return future completed once the result has been set
+     */
+    private CompletableFuture<?> process(
+        CallbackRequest callback,
+        CallbackDeadline deadline,
+        DeferredResult<ResponseEntity<CallbackResponse>> result
+    ) {
+        inFlight.incrementAndGet();
+
+        try {
+            return CompletableFuture
+                .supplyAsync(
+                    () -> attachCaseCallbackService.process(callback.getCaseDetails(), deadline),
+                    callbackHandlerExecutor
+                )
+                .whenComplete((errors, exception) -> {
+                    inFlight.decrementAndGet();
+
+                    if (exception == null) {
+                        result.setResult(respondWithErrorList(errors));
+                    } else {
+                        result.setErrorResult(
+                            exception instanceof CompletionException ? exception.getCause() : exception
+                        );
+                    }
+                });
+        } catch (RejectedExecutionException exception) {
+            inFlight.decrementAndGet();
+            rejections.increment();
+
+            log.warn("Rejected attach case callback. Case ID: {}", callback.getCaseDetails().getId());
+            result.setResult(respondWithErrorList(ImmutableList.of(REJECTED_ERROR)));
+
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -49,4 +193,3 @@ public class CcdCallbackController {
                 .build());
     }
 }
-
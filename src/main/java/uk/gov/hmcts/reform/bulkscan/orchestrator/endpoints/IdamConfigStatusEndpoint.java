@@ -3,10 +3,14 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.endpoints;
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.out.JurisdictionConfigurationStatus;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.Credential;
@@ -14,9 +18,31 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUse
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.NoUserConfiguredException;
 import uk.gov.hmcts.reform.idam.client.IdamClient;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+/**
+ * Reports whether IDAM credentials of each jurisdiction are correct.
+ *
+ * <p>Credentials are checked in the background and the endpoint serves the last known status,
+ * together with its age, so that requests don't wait for IDAM. Only jurisdictions which haven't
+ * been checked yet (e.g. straight after startup) are checked while the request waits.</p>
+ *
+ * <p>Jurisdictions are checked concurrently. A check that doesn't complete within the timeout
+ * is reported as failed.</p>
+ */
 @Component
 @Endpoint(id = "idam-config-status")
 @EnableConfigurationProperties(JurisdictionToUserMapping.class)
@@ -26,40 +52,150 @@ public class IdamConfigStatusEndpoint {
 
     private final JurisdictionToUserMapping jurisdictionMapping;
     private final IdamClient idamClient;
+    private final Executor executor;
+    private final Duration checkTimeout;
+    private final Clock clock;
 
+    private final Map<String, CheckResult> results = new ConcurrentHashMap<>();
+
+    @Autowired
     public IdamConfigStatusEndpoint(
         JurisdictionToUserMapping mapping,
-        IdamClient idamClient
+        IdamClient idamClient,
+        @Qualifier("idam-config-check") Executor executor,
+        @Value("${idam.config-status.check-timeout-millis}") long checkTimeoutMillis
+    ) {
+        this(mapping, idamClient, executor, Duration.ofMillis(checkTimeoutMillis), Clock.systemUTC());
+    }
+
+    IdamConfigStatusEndpoint(
+        JurisdictionToUserMapping mapping,
+        IdamClient idamClient,
+        Executor executor,
+        Duration checkTimeout,
+        Clock clock
     ) {
         jurisdictionMapping = mapping;
         this.idamClient = idamClient;
+        this.executor = executor;
+        this.checkTimeout = checkTimeout;
+        this.clock = clock;
     }
 
     @ReadOperation
     public List<JurisdictionConfigurationStatus> jurisdictions() {
-        return jurisdictionMapping.getUsers()
-            .entrySet()
+        Map<String, Credential> users = jurisdictionMapping.getUsers();
+
+        results.putAll(checkCredentials(
+            users
+                .entrySet()
+                .stream()
+                .filter(entry -> !results.containsKey(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
+        ));
+
+        Instant now = clock.instant();
+
+        return users
+            .keySet()
             .stream()
-            .map(entry -> checkCredentials(entry.getKey(), entry.getValue()))
+            .map(jurisdiction -> results.get(jurisdiction).toStatus(now))
             .collect(Collectors.toList());
     }
 
     @ReadOperation
     public JurisdictionConfigurationStatus jurisdiction(@Selector String jurisdiction) {
         try {
-            return checkCredentials(jurisdiction, jurisdictionMapping.getUser(jurisdiction));
+            Credential credential = jurisdictionMapping.getUser(jurisdiction);
+            String key = jurisdiction.toLowerCase();
+
+            CheckResult result = results.get(key);
+
+            if (result == null) {
+                // not cached inside `computeIfAbsent` - it would block other map updates while IDAM responds
+                result = checkCredentials(key, credential);
+                results.putIfAbsent(key, result);
+            }
+
+            return result.toStatus(clock.instant());
         } catch (NoUserConfiguredException exception) {
             return new JurisdictionConfigurationStatus(jurisdiction, false, exception.getMessage());
         }
     }
 
-    private JurisdictionConfigurationStatus checkCredentials(String jurisdiction, Credential credential) {
+    @Scheduled(
+        initialDelayString = "${idam.config-status.refresh-interval-millis}",
+        fixedDelayString = "${idam.config-status.refresh-interval-millis}"
+    )
+    public void refresh() {
+        results.putAll(checkCredentials(jurisdictionMapping.getUsers()));
+    }
+
+    /**
+     * Checks credentials of all given jurisdictions concurrently, waiting no longer than the check timeout.
+     */
+    private Map<String, CheckResult> checkCredentials(Map<String, Credential> credentials) {
+        Map<String, CompletableFuture<CheckResult>> checks = new LinkedHashMap<>();
+
+        credentials.forEach((jurisdiction, credential) ->
+            checks.put(jurisdiction, startCheck(jurisdiction, credential))
+        );
+
+        long deadline = System.nanoTime() + checkTimeout.toNanos();
+        Map<String, CheckResult> checked = new LinkedHashMap<>();
+
+        checks.forEach((jurisdiction, check) -> checked.put(
+            jurisdiction,
+            awaitCheck(jurisdiction, check, deadline - System.nanoTime())
+        ));
+
+        return checked;
+    }
+
+    private CheckResult checkCredentials(String jurisdiction, Credential credential) {
+        return awaitCheck(jurisdiction, startCheck(jurisdiction, credential), checkTimeout.toNanos());
+    }
+
+    private CompletableFuture<CheckResult> startCheck(String jurisdiction, Credential credential) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(jurisdiction, credential), executor);
+        } catch (RejectedExecutionException exception) {
+            log.warn("IDAM credentials check of {} jurisdiction rejected", jurisdiction);
+
+            return CompletableFuture.completedFuture(
+                failure(jurisdiction, "Credentials check rejected - too many checks in progress")
+            );
+        }
+    }
+
+    private CheckResult awaitCheck(String jurisdiction, CompletableFuture<CheckResult> check, long timeoutNanos) {
+        try {
+            return check.get(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            check.cancel(false);
+            log.warn("IDAM credentials check of {} jurisdiction timed out", jurisdiction);
+
+            return failure(jurisdiction, "Credentials check timed out after " + checkTimeout.toMillis() + " ms");
+        } catch (ExecutionException exception) {
+            return failure(jurisdiction, exception.getCause().getMessage());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+
+            return failure(jurisdiction, "Credentials check interrupted");
+        }
+    }
+
+    private CheckResult failure(String jurisdiction, String errorDescription) {
+        return new CheckResult(jurisdiction, false, errorDescription, clock.instant());
+    }
+
+    private CheckResult authenticate(String jurisdiction, Credential credential) {
         try {
             idamClient.authenticateUser(credential.getUsername(), credential.getPassword());
 
             log.debug("Successful authentication of {} jurisdiction", jurisdiction);
 
-            return new JurisdictionConfigurationStatus(jurisdiction, true);
+            return new CheckResult(jurisdiction, true, null, clock.instant());
         } catch (FeignException exception) {
             log.warn(
                 "An error occurred while authenticating {} jurisdiction with {} username",
@@ -68,7 +204,7 @@ public class IdamConfigStatusEndpoint {
                 exception
             );
 
-            return new JurisdictionConfigurationStatus(jurisdiction, false, exception.getMessage());
+            return failure(jurisdiction, exception.getMessage());
         } catch (Exception exception) {
             log.error(
                 "An error occurred while authenticating {} jurisdiction with {} username",
@@ -77,7 +213,30 @@ public class IdamConfigStatusEndpoint {
                 exception
             );
 
-            return new JurisdictionConfigurationStatus(jurisdiction, false, exception.getMessage());
+            return failure(jurisdiction, exception.getMessage());
+        }
+    }
+
+    private static class CheckResult {
+        final String jurisdiction;
+        final boolean isCorrect;
+        final String errorDescription;
+        final Instant checkedAt;
+
+        CheckResult(String jurisdiction, boolean isCorrect, String errorDescription, Instant checkedAt) {
+            this.jurisdiction = jurisdiction;
+            this.isCorrect = isCorrect;
+            this.errorDescription = errorDescription;
+            this.checkedAt = checkedAt;
+        }
+
+        JurisdictionConfigurationStatus toStatus(Instant now) {
+            return new JurisdictionConfigurationStatus(
+                jurisdiction,
+                isCorrect,
+                errorDescription,
+                Duration.between(checkedAt, now).getSeconds()
+            );
         }
     }
 }
@@ -0,0 +1,107 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.ProcessedEnvelope;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Jackson readers and writers shared across the service.
+ *
+ * <p>Readers and writers are built once, with their types resolved up front, and are safe to use
+ * from many threads. Afterburner module is registered unless switched off, see {@link #isAfterburnerEnabled()}.</p>
+ */
+public final class JsonSerialization {
+
+    public static final String AFTERBURNER_PROPERTY = "json.afterburner.enabled";
+    public static final String AFTERBURNER_ENV_VARIABLE = "JSON_AFTERBURNER_ENABLED";
+
+    private static final ObjectMapper objectMapper = createObjectMapper(isAfterburnerEnabled());
+
+    private static final ObjectReader documentReader = objectMapper.readerFor(Document.class);
+    private static final ObjectReader instantReader = objectMapper.readerFor(Instant.class);
+    private static final ObjectReader treeReader = objectMapper.readerFor(JsonNode.class);
+    private static final ObjectReader scannedDocumentReader = objectMapper.readerFor(ScannedDocument.class);
+    private static final ObjectWriter processedEnvelopeWriter = objectMapper.writerFor(ProcessedEnvelope.class);
+
+    private JsonSerialization() {
+        // utility class
+    }
+
+    public static ObjectMapper createObjectMapper(boolean afterburner) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+
+        if (afterburner) {
+            mapper.registerModule(new AfterburnerModule());
+        }
+
+        return mapper;
+    }
+
+    /**
+     * Tells whether Afterburner should be used, by this class and the Spring managed object mapper alike.
+     * Switched off by setting the {@value #AFTERBURNER_PROPERTY} system property
+     * or the {@value #AFTERBURNER_ENV_VARIABLE} environment variable to {@code false}.
+     * System property takes precedence.
+     */
+    public static boolean isAfterburnerEnabled() {
+        return isAfterburnerEnabled(System.getProperty(AFTERBURNER_PROPERTY), System.getenv(AFTERBURNER_ENV_VARIABLE));
+    }
+
+    static boolean isAfterburnerEnabled(String systemProperty, String environmentVariable) {
+        String value = systemProperty != null ? systemProperty : environmentVariable;
+
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    public static JsonFactory jsonFactory() {
+        return objectMapper.getFactory();
+    }
+
+    public static ObjectReader documentReader() {
+        return documentReader;
+    }
+
+    public static ObjectReader instantReader() {
+        return instantReader;
+    }
+
+    /**
+     * Reads any JSON as a tree of {@link JsonNode}s.
+     */
+    public static ObjectReader treeReader() {
+        return treeReader;
+    }
+
+    public static ObjectWriter processedEnvelopeWriter() {
+        return processedEnvelopeWriter;
+    }
+
+    /**
+     * Converts CCD case data value (as returned by CCD client) to a scanned document.
+     *
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static ScannedDocument toScannedDocument(Object value) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            objectMapper.writeValue(buffer, value);
+
+            return scannedDocumentReader.readValue(buffer.asParser());
+        } catch (IOException exc) {
+            throw new IllegalArgumentException(exc.getMessage(), exc);
+        }
+    }
+}
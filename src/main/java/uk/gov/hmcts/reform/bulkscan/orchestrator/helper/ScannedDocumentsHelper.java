@@ -1,8 +1,5 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
 
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -16,35 +13,31 @@ import static java.util.stream.Collectors.toList;
 
 public class ScannedDocumentsHelper {
 
-    private static final ObjectMapper objectMapper;
-
-    static {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
-    }
-
     private ScannedDocumentsHelper() {
         // utility class
     }
 
-    @SuppressWarnings("unchecked")
     public static List<Document> getDocuments(CaseDetails caseDetails) {
-        List<Map<String, Object>> scannedDocuments =
-            (List<Map<String, Object>>) caseDetails.getData().get("scannedDocuments");
-
-        if (scannedDocuments == null) {
-            return Collections.emptyList();
-        }
-
-        return scannedDocuments.stream()
+        return getScannedDocuments(caseDetails)
+            .stream()
             .map(ScannedDocumentsHelper::createScannedDocumentWithCcdData)
             .map(ScannedDocumentsHelper::mapScannedDocument)
             .collect(toList());
     }
 
+    /**
+     * Scanned documents of the case exactly as received from CCD (collection elements with `id` and `value`).
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> getScannedDocuments(CaseDetails caseDetails) {
+        List<Map<String, Object>> scannedDocuments =
+            (List<Map<String, Object>>) caseDetails.getData().get("scannedDocuments");
+
+        return scannedDocuments == null ? Collections.emptyList() : scannedDocuments;
+    }
+
     static ScannedDocument createScannedDocumentWithCcdData(Map<String, Object> object) {
-        return objectMapper.convertValue(object.get("value"), ScannedDocument.class);
+        return JsonSerialization.toScannedDocument(object.get("value"));
     }
 
     private static Document mapScannedDocument(ScannedDocument doc) {
@@ -1,6 +1,11 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class SupplementaryEvidence implements CaseData {
 
@@ -9,9 +14,27 @@ public class SupplementaryEvidence implements CaseData {
     @SuppressWarnings("squid:S1170") // this field shouldn't be made static
     public final String evidenceHandled = "No";
 
-    public final List<CcdCollectionElement<ScannedDocument>> scannedDocuments;
+    // documents already present in the case - sent back to CCD exactly as they were received
+    @JsonIgnore
+    public final List<Map<String, Object>> existingScannedDocuments;
+
+    @JsonIgnore
+    public final List<CcdCollectionElement<ScannedDocument>> newScannedDocuments;
+
+    public SupplementaryEvidence(
+        List<Map<String, Object>> existingScannedDocuments,
+        List<CcdCollectionElement<ScannedDocument>> newScannedDocuments
+    ) {
+        this.existingScannedDocuments = existingScannedDocuments;
+        this.newScannedDocuments = newScannedDocuments;
+    }
+
+    @JsonProperty("scannedDocuments")
+    public List<Object> getScannedDocuments() {
+        List<Object> scannedDocuments = new ArrayList<>(existingScannedDocuments.size() + newScannedDocuments.size());
+        scannedDocuments.addAll(existingScannedDocuments);
+        scannedDocuments.addAll(newScannedDocuments);
 
-    public SupplementaryEvidence(List<CcdCollectionElement<ScannedDocument>> scannedDocuments) {
-        this.scannedDocuments = scannedDocuments;
+        return scannedDocuments;
     }
 }
@@ -5,11 +5,10 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdCollectionElement;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CcdKeyValue;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ExceptionRecord;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrDataField;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrData;
 
 import java.util.List;
 
-import static java.util.stream.Collectors.toList;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.DocumentMapper.getLocalDateTime;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.DocumentMapper.mapDocuments;
 
@@ -32,13 +31,9 @@ public class ExceptionRecordMapper {
         );
     }
 
-    private List<CcdCollectionElement<CcdKeyValue>> mapOcrData(List<OcrDataField> ocrData) {
+    private List<CcdCollectionElement<CcdKeyValue>> mapOcrData(OcrData ocrData) {
         if (ocrData != null) {
-            return ocrData
-                .stream()
-                .map(ocrDataField -> new CcdKeyValue(ocrDataField.name, ocrDataField.value))
-                .map(CcdCollectionElement::new)
-                .collect(toList());
+            return ocrData.map((name, value) -> new CcdCollectionElement<>(new CcdKeyValue(name, value)));
         }
         return null;
     }
@@ -4,9 +4,10 @@ import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.SupplementaryEvidence;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toList;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.DocumentMapper.mapDocuments;
@@ -18,25 +19,46 @@ public class SupplementaryEvidenceMapper {
         // empty mapper construct
     }
 
-    public SupplementaryEvidence map(List<Document> existingDocs, List<Document> envelopeDocs) {
+    /**
+     * Appends envelope documents to the ones already present in the case.
+     *
+     * <p>Existing documents are taken as raw CCD collection elements and left untouched,
+     * only documents being added are mapped.</p>
+     */
+    public SupplementaryEvidence map(List<Map<String, Object>> existingDocs, List<Document> envelopeDocs) {
+        // indexed once, so that each envelope document is checked in constant time
+        // (cases collect hundreds of documents over their lifetime)
+        Set<String> existingUrls = new HashSet<>();
+        Set<String> existingControlNumbers = new HashSet<>();
 
-        Stream<Document> docsToAdd =
+        existingDocs.forEach(element -> {
+            Map<String, Object> doc = getMap(element, "value");
+
+            if (doc != null) {
+                existingUrls.add(getString(getMap(doc, "url"), "document_url"));
+                existingControlNumbers.add(getString(doc, "controlNumber"));
+            }
+        });
+
+        List<Document> docsToAdd =
             envelopeDocs
                 .stream()
-                .filter(d -> existingDocs.stream().noneMatch(e -> areDuplicates(d, e)));
-
-        return new SupplementaryEvidence(
-            mapDocuments(
-                Stream.concat(
-                    existingDocs.stream(),
-                    docsToAdd
-                ).collect(toList())
-            )
-        );
+                .filter(d -> !existingUrls.contains(d.url) && !existingControlNumbers.contains(d.controlNumber))
+                .collect(toList());
+
+        return new SupplementaryEvidence(existingDocs, mapDocuments(docsToAdd));
     }
 
-    private boolean areDuplicates(Document d1, Document d2) {
-        return Objects.equals(d1.url, d2.url)
-            || Objects.equals(d1.controlNumber, d2.controlNumber);
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> map, String key) {
+        Object value = map == null ? null : map.get(key);
+
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    private static String getString(Map<String, Object> map, String key) {
+        Object value = map == null ? null : map.get(key);
+
+        return value == null ? null : value.toString();
     }
 }
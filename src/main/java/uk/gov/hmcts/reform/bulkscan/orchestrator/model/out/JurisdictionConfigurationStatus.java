@@ -12,14 +12,28 @@ public class JurisdictionConfigurationStatus {
     @JsonProperty("error_description")
     public final String errorDescription;
 
+    // seconds since the status was checked, null if it wasn't checked at all
+    @JsonProperty("age_seconds")
+    public final Long ageSeconds;
+
     public JurisdictionConfigurationStatus(
         String jurisdiction,
         boolean isCorrect,
-        String errorDescription
+        String errorDescription,
+        Long ageSeconds
     ) {
         this.jurisdiction = jurisdiction;
         this.isCorrect = isCorrect;
         this.errorDescription = errorDescription;
+        this.ageSeconds = ageSeconds;
+    }
+
+    public JurisdictionConfigurationStatus(
+        String jurisdiction,
+        boolean isCorrect,
+        String errorDescription
+    ) {
+        this(jurisdiction, isCorrect, errorDescription, null);
     }
 
     public JurisdictionConfigurationStatus(
@@ -0,0 +1,209 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
+
+import com.google.common.collect.Lists;
+import com.microsoft.azure.servicebus.IMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticatorFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageLockRenewer;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.stream.Collectors.toList;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.EnvelopeParser.parse;
+
+/**
+ * Processes messages received from the envelopes queue in batches.
+ *
+ * <p>Messages of a batch are grouped by envelope's jurisdiction. IDAM credentials of each jurisdiction
+ * are checked once per batch, before any of its envelopes is processed - envelopes of a jurisdiction
+ * that can't be authenticated are scheduled for redelivery without calling CCD. Successfully processed
+ * messages are completed together once the whole batch is done.</p>
+ *
+ * <p>Envelopes of a jurisdiction are processed in chunks no bigger than the number of envelopes its lane
+ * lets in at a time, see {@link JurisdictionLanes}. Otherwise the lane would turn away the rest of a batch
+ * from one jurisdiction on every receive.</p>
+ */
+@Service
+public class EnvelopeBatchProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeBatchProcessor.class);
+
+    // messages which can't be parsed - processor dead-letters them
+    private static final String UNKNOWN_JURISDICTION = "";
+
+    private final EnvelopeEventProcessor processor;
+    private final CcdAuthenticatorFactory authenticatorFactory;
+    private final MessageLockRenewer lockRenewer;
+    private final IMessageOperations messageOperations;
+    private final int chunkSize;
+
+    public EnvelopeBatchProcessor(
+        EnvelopeEventProcessor processor,
+        CcdAuthenticatorFactory authenticatorFactory,
+        MessageLockRenewer lockRenewer,
+        IMessageOperations messageOperations,
+        @Value("${envelope-processing.lanes.max-in-flight}") int chunkSize
+    ) {
+        this.processor = processor;
+        this.authenticatorFactory = authenticatorFactory;
+        this.lockRenewer = lockRenewer;
+        this.messageOperations = messageOperations;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Processes the batch. Returns once every message of the batch has been dealt with.
+     */
+    public void process(Collection<IMessage> batch) {
+        batch.forEach(lockRenewer::start);
+
+        try {
+            List<CompletableFuture<Optional<UUID>>> results = new ArrayList<>();
+
+            groupByJurisdiction(batch).forEach((jurisdiction, envelopes) -> {
+                if (jurisdiction.equals(UNKNOWN_JURISDICTION)) {
+                    envelopes.keySet().forEach(message -> results.add(processMessage(message)));
+                } else if (canAuthenticate(jurisdiction, envelopes.size())) {
+                    results.addAll(processInChunks(envelopes));
+                } else {
+                    envelopes.forEach(processor::redeliverBatchMessage);
+                }
+            });
+
+            List<UUID> processed = results
+                .stream()
+                .map(CompletableFuture::join)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+
+            completeAll(processed);
+
+            log.info("Processed batch of {} messages. Completed: {}", batch.size(), processed.size());
+        } finally {
+            batch.forEach(lockRenewer::stop);
+        }
+    }
+
+    /**
+     * Parses envelopes of the batch and groups them by jurisdiction, keeping the order of messages.
+     * Messages which can't be parsed have no envelope.
+     */
+    private Map<String, Map<IMessage, Envelope>> groupByJurisdiction(Collection<IMessage> batch) {
+        Map<String, Map<IMessage, Envelope>> envelopesByJurisdiction = new LinkedHashMap<>();
+
+        for (IMessage message : batch) {
+            Envelope envelope = tryParse(message);
+            String jurisdiction = envelope == null ? UNKNOWN_JURISDICTION : envelope.jurisdiction;
+
+            envelopesByJurisdiction
+                .computeIfAbsent(jurisdiction, key -> new LinkedHashMap<>())
+                .put(message, envelope);
+        }
+
+        return envelopesByJurisdiction;
+    }
+
+    private Envelope tryParse(IMessage message) {
+        try {
+            return parse(message.getBody());
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtains IDAM credentials of the jurisdiction, which are then cached for its envelopes.
+     */
+    private boolean canAuthenticate(String jurisdiction, int messageCount) {
+        try {
+            authenticatorFactory.createForJurisdiction(jurisdiction);
+            return true;
+        } catch (RuntimeException exception) {
+            log.warn(
+                "Failed to authenticate {} jurisdiction. Scheduling its {} messages for redelivery",
+                jurisdiction,
+                messageCount,
+                exception
+            );
+            return false;
+        }
+    }
+
+    /**
+     * Processes envelopes of one jurisdiction, starting each chunk once the previous one is done.
+     */
+    private List<CompletableFuture<Optional<UUID>>> processInChunks(Map<IMessage, Envelope> envelopes) {
+        List<CompletableFuture<Optional<UUID>>> results = new ArrayList<>();
+        CompletableFuture<Void> previousChunk = CompletableFuture.completedFuture(null);
+
+        List<Map.Entry<IMessage, Envelope>> entries = new ArrayList<>(envelopes.entrySet());
+
+        for (List<Map.Entry<IMessage, Envelope>> chunk : Lists.partition(entries, chunkSize)) {
+            CompletableFuture<Void> start = previousChunk;
+
+            List<CompletableFuture<Optional<UUID>>> chunkResults = chunk
+                .stream()
+                .map(entry -> processMessage(entry.getKey(), entry.getValue(), start))
+                .collect(toList());
+
+            results.addAll(chunkResults);
+            previousChunk = CompletableFuture.allOf(chunkResults.toArray(new CompletableFuture[0]));
+        }
+
+        return results;
+    }
+
+    /**
+     * Processes the message whose envelope couldn't be parsed. Processor takes care of rejecting it.
+     */
+    private CompletableFuture<Optional<UUID>> processMessage(IMessage message) {
+        return handleFailure(message, processor.processBatchMessage(message));
+    }
+
+    private CompletableFuture<Optional<UUID>> processMessage(
+        IMessage message,
+        Envelope envelope,
+        CompletableFuture<Void> start
+    ) {
+        return handleFailure(message, start.thenCompose(started -> processor.processBatchMessage(message, envelope)));
+    }
+
+    private CompletableFuture<Optional<UUID>> handleFailure(
+        IMessage message,
+        CompletableFuture<Optional<UUID>> processing
+    ) {
+        return processing.exceptionally(throwable -> {
+            log.error("Failed to process message with ID {}", message.getMessageId(), throwable);
+            return Optional.empty();
+        });
+    }
+
+    private void completeAll(List<UUID> lockTokens) {
+        if (lockTokens.isEmpty()) {
+            return;
+        }
+
+        try {
+            messageOperations.completeAll(lockTokens);
+        } catch (InterruptedException exception) {
+            log.error("Interrupted while completing {} messages", lockTokens.size(), exception);
+            Thread.currentThread().interrupt();
+        } catch (Exception exception) {
+            // envelopes are in the ledger, so their next delivery only completes them
+            log.error("Failed to complete {} messages", lockTokens.size(), exception);
+        }
+    }
+}
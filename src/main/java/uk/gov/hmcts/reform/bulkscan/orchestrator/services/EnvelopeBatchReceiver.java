@@ -0,0 +1,68 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageReceiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives messages from the envelopes queue in batches and hands them over to {@link EnvelopeBatchProcessor}.
+ * Next batch is received once the previous one has been processed.
+ */
+public class EnvelopeBatchReceiver implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeBatchReceiver.class);
+
+    // pause after a failed receive, so that a broken connection doesn't make the loop spin
+    private static final long RECEIVE_ERROR_PAUSE_SECONDS = 5;
+
+    private final IMessageReceiver receiver;
+    private final EnvelopeBatchProcessor batchProcessor;
+    private final int batchSize;
+    private final Duration waitTime;
+
+    private volatile boolean running = true;
+
+    public EnvelopeBatchReceiver(
+        IMessageReceiver receiver,
+        EnvelopeBatchProcessor batchProcessor,
+        int batchSize,
+        Duration waitTime
+    ) {
+        this.receiver = receiver;
+        this.batchProcessor = batchProcessor;
+        this.batchSize = batchSize;
+        this.waitTime = waitTime;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Collection<IMessage> batch = receiver.receiveBatch(batchSize, waitTime);
+
+                if (batch != null && !batch.isEmpty()) {
+                    batchProcessor.process(batch);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception exception) {
+                log.error("Failed to receive batch of envelope messages", exception);
+                Uninterruptibles.sleepUninterruptibly(RECEIVE_ERROR_PAUSE_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops receiving once the batch being processed is done.
+     */
+    public void stop() {
+        running = false;
+    }
+}
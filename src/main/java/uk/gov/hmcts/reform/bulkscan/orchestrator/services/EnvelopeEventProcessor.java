@@ -1,31 +1,59 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
 
 import com.google.common.base.Strings;
+import feign.FeignException;
 import com.microsoft.azure.servicebus.ExceptionPhase;
 import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.IMessageHandler;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseRetriever;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadata;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadataCache;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdCircuitBreakers;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdUnavailableException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events.EventPublisher;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events.EventPublisherContainer;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.CompletedStep;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.EnvelopeLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.AdaptiveConcurrencyLimit;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IProcessedEnvelopeNotifier;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageLockRenewer;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.NotificationSendingException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.RedeliveryPolicy;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions.InvalidMessageException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions.LockLostException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions.MessageProcessingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResult;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
-import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.CASE_RETRIEVAL;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.NOTIFICATION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.PARSE;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.EnvelopeParser.parse;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.DEPENDENCY_UNAVAILABLE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.LOCK_LOST;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.REJECTED;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.SUCCESS;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.UNRECOVERABLE_FAILURE;
 
@@ -34,76 +62,364 @@ public class EnvelopeEventProcessor implements IMessageHandler {
 
     private static final Logger log = LoggerFactory.getLogger(EnvelopeEventProcessor.class);
 
-    private final CaseRetriever caseRetriever;
+    private final CaseMetadataCache caseMetadataCache;
     private final EventPublisherContainer eventPublisherContainer;
     private final IProcessedEnvelopeNotifier processedEnvelopeNotifier;
     private final IMessageOperations messageOperations;
+    private final Executor processingExecutor;
+    private final Executor settlingExecutor;
+    private final JurisdictionLanes jurisdictionLanes;
+    private final ProcessingMetrics metrics;
+    private final EnvelopeLedger ledger;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final RedeliveryPolicy redeliveryPolicy;
+    private final MessageLockRenewer lockRenewer;
 
     public EnvelopeEventProcessor(
-        CaseRetriever caseRetriever,
+        CaseMetadataCache caseMetadataCache,
         EventPublisherContainer eventPublisherContainer,
         IProcessedEnvelopeNotifier processedEnvelopeNotifier,
-        IMessageOperations messageOperations
+        IMessageOperations messageOperations,
+        @Qualifier("envelope-processing") Executor processingExecutor,
+        JurisdictionLanes jurisdictionLanes,
+        ProcessingMetrics metrics,
+        EnvelopeLedger ledger,
+        AdaptiveConcurrencyLimit concurrencyLimit,
+        RedeliveryPolicy redeliveryPolicy,
+        MessageLockRenewer lockRenewer
     ) {
-        this.caseRetriever = caseRetriever;
+        this.caseMetadataCache = caseMetadataCache;
         this.eventPublisherContainer = eventPublisherContainer;
         this.processedEnvelopeNotifier = processedEnvelopeNotifier;
         this.messageOperations = messageOperations;
+        this.processingExecutor = processingExecutor;
+        this.settlingExecutor = task -> {
+            try {
+                processingExecutor.execute(task);
+            } catch (RejectedExecutionException exception) {
+                // a single Service Bus call. Unsettled message would only come back once its lock expires
+                task.run();
+            }
+        };
+        this.jurisdictionLanes = jurisdictionLanes;
+        this.metrics = metrics;
+        this.ledger = ledger;
+        this.concurrencyLimit = concurrencyLimit;
+        this.redeliveryPolicy = redeliveryPolicy;
+        this.lockRenewer = lockRenewer;
     }
 
+    /**
+     * Processes the message as a chain of stages: parse, publisher resolution (case lookup),
+     * CCD event publishing, notification and finalisation.
+     *
+     * <p>Every stage runs asynchronously, so the Service Bus reader thread is released as soon as
+     * the chain is set up. Stages talking to CCD run in the lane of envelope's jurisdiction,
+     * the rest on the shared envelope processing executor. The returned future completes once
+     * the message has been completed, dead-lettered or left for redelivery.</p>
+     *
+     * <p>When CCD calls are suspended by the circuit breaker, the message is sent again as a new message,
+     * to be delivered once CCD may accept calls again. Unlike abandoning, this doesn't use up delivery attempts,
+     * so envelopes outlive long CCD outages. Messages rejected because their lane or the processing pool
+     * is full are sent again after the initial redelivery delay, also keeping their redelivery count -
+     * being busy doesn't make an envelope fail.
+     * Messages which failed for other reasons that may go away are scheduled to be delivered again,
+     * see {@link RedeliveryPolicy}.</p>
+     *
+     * <p>Once the lock of the message has been lost no further CCD calls are made for it and
+     * the message is left alone - it's going to be delivered again anyway, see {@link MessageLockRenewer}.</p>
+     */
     @Override
     public CompletableFuture<Void> onMessageAsync(IMessage message) {
-        /*
-         * NOTE: this is done here instead of offloading to the forkJoin pool "CompletableFuture.runAsync()"
-         * because we probably should think about a threading model before doing this.
-         * Maybe consider using Netflix's RxJava too (much simpler than CompletableFuture).
-         */
-        CompletableFuture<Void> completableFuture = new CompletableFuture<>();
-        try {
-            MessageProcessingResult result = process(message);
-            tryFinaliseProcessedMessage(message, result);
+        return process(message)
+            .thenAcceptAsync(result -> tryFinaliseProcessedMessage(message, result), settlingExecutor);
+    }
 
-            completableFuture.complete(null);
-        } catch (Throwable t) {
-            completableFuture.completeExceptionally(t);
-        }
-        return completableFuture;
+    /**
+     * Processes a message received as a part of a batch, see {@link EnvelopeBatchProcessor}.
+     * Successfully processed message is not completed - its lock token is returned instead,
+     * so that the batch can be completed at once. Other results are handled like in {@link #onMessageAsync}.
+     */
+    public CompletableFuture<Optional<UUID>> processBatchMessage(IMessage message) {
+        return settleBatchMessage(message, process(message));
+    }
+
+    /**
+     * Processes a message received as a part of a batch, whose envelope has already been parsed
+     * by {@link EnvelopeBatchProcessor}. See {@link #processBatchMessage(IMessage)}.
+     */
+    public CompletableFuture<Optional<UUID>> processBatchMessage(IMessage message, Envelope envelope) {
+        log.info("Started processing message with ID {}", message.getMessageId());
+        logMessageParsed(message, envelope);
+
+        CompletableFuture<MessageProcessingResult> processing = CompletableFuture
+            .completedFuture(envelope)
+            .thenCompose(parsed -> processEnvelope(message, parsed))
+            // lane of the jurisdiction may reject the envelope before its processing starts
+            .exceptionally(throwable -> handleProcessingError(message, envelope, unwrap(throwable)));
+
+        return settleBatchMessage(message, processing);
+    }
+
+    /**
+     * Schedules a message received as a part of a batch to be delivered again, without processing it.
+     * Used when the batch can't be processed for reasons unrelated to the envelope itself,
+     * e.g. IDAM credentials of its jurisdiction can't be obtained.
+     */
+    public void redeliverBatchMessage(IMessage message, Envelope envelope) {
+        metrics.countResult(POTENTIALLY_RECOVERABLE_FAILURE, envelope, null);
+        tryFinaliseProcessedMessage(message, new MessageProcessingResult(POTENTIALLY_RECOVERABLE_FAILURE));
+    }
+
+    private CompletableFuture<Optional<UUID>> settleBatchMessage(
+        IMessage message,
+        CompletableFuture<MessageProcessingResult> processing
+    ) {
+        return processing
+            .thenApplyAsync(
+                result -> {
+                    if (result.resultType == SUCCESS) {
+                        return Optional.of(message.getLockToken());
+                    }
+
+                    tryFinaliseProcessedMessage(message, result);
+                    return Optional.<UUID>empty();
+                },
+                settlingExecutor
+            );
     }
 
-    private MessageProcessingResult process(IMessage message) {
+    private CompletableFuture<MessageProcessingResult> process(IMessage message) {
         log.info("Started processing message with ID {}", message.getMessageId());
 
-        Envelope envelope = null;
+        return parseEnvelope(message)
+            .thenCompose(envelope -> processEnvelope(message, envelope))
+            .exceptionally(throwable -> {
+                MessageProcessingResult result = handleParsingError(message, unwrap(throwable));
+                metrics.countResult(result.resultType, null, null);
+                return result;
+            });
+    }
+
+    /**
+     * Processes the envelope, as long as its jurisdiction doesn't have too many envelopes in flight already.
+     */
+    private CompletableFuture<MessageProcessingResult> processEnvelope(IMessage message, Envelope envelope) {
+        if (!jurisdictionLanes.tryEnter(envelope.jurisdiction)) {
+            MessageProcessingResult result = handleProcessingError(
+                message,
+                envelope,
+                new RejectedExecutionException("Too many envelopes in flight")
+            );
+            metrics.countResult(result.resultType, envelope, null);
+            return CompletableFuture.completedFuture(result);
+        }
 
         try {
-            envelope = parse(message.getBody());
+            return processEnvelopeInLane(message, envelope)
+                .whenComplete((result, exception) -> jurisdictionLanes.leave(envelope.jurisdiction));
+        } catch (RuntimeException exception) {
+            jurisdictionLanes.leave(envelope.jurisdiction);
+            throw exception;
+        }
+    }
+
+    private CompletableFuture<MessageProcessingResult> processEnvelopeInLane(IMessage message, Envelope envelope) {
+        // known once the publisher has been resolved
+        AtomicReference<String> publisherName = new AtomicReference<>();
 
-            logMessageParsed(message, envelope);
+        return resolvePublisher(message, envelope)
+            .thenCompose(eventPublisher -> {
+                if (!eventPublisher.isPresent()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                publisherName.set(eventPublisher.get().getName());
+                return publish(message, eventPublisher.get(), envelope);
+            })
+            .thenCompose(published -> notifyProcessed(envelope))
+            .thenApply(notified -> {
+                log.info(
+                    "Processed message with ID {}. File name: {}",
+                    message.getMessageId(),
+                    envelope.zipFileName
+                );
+                return new MessageProcessingResult(SUCCESS);
+            })
+            .exceptionally(throwable -> handleProcessingError(message, envelope, unwrap(throwable)))
+            .thenApply(result -> {
+                metrics.countResult(result.resultType, envelope, publisherName.get());
+                return result;
+            });
+    }
 
-            EventPublisher eventPublisher = eventPublisherContainer.getPublisher(
-                envelope.classification,
-                getCaseRetriever(envelope)
+    private CompletableFuture<Envelope> parseEnvelope(IMessage message) {
+        try {
+            return CompletableFuture.supplyAsync(
+                () -> {
+                    Envelope envelope = metrics.timer(PARSE).record(() -> parse(message.getBody()));
+                    logMessageParsed(message, envelope);
+                    return envelope;
+                },
+                processingExecutor
             );
+        } catch (RejectedExecutionException exception) {
+            CompletableFuture<Envelope> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(exception);
+            return rejected;
+        }
+    }
 
-            eventPublisher.publish(envelope);
-            processedEnvelopeNotifier.notify(envelope.id);
-            log.info("Processed message with ID {}. File name: {}", message.getMessageId(), envelope.zipFileName);
-            return new MessageProcessingResult(SUCCESS);
-        } catch (InvalidMessageException ex) {
-            log.error("Rejected message with ID {}, because it's invalid", message.getMessageId(), ex);
-            return new MessageProcessingResult(UNRECOVERABLE_FAILURE, ex);
-        } catch (NotificationSendingException ex) {
-            logMessageProcessingError(message, envelope, ex);
-
-            // CCD changes have been made, so it's better to dead-letter the message and
-            // not repeat them, at least until CCD operations become idempotent
-            return new MessageProcessingResult(UNRECOVERABLE_FAILURE, ex);
-        } catch (Exception ex) {
-            logMessageProcessingError(message, envelope, ex);
+    /**
+     * Resolves the publisher for the envelope. Resolves nothing when the envelope has already been
+     * published to CCD, during one of the previous deliveries of the message.
+     */
+    private CompletableFuture<Optional<EventPublisher>> resolvePublisher(IMessage message, Envelope envelope) {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                checkLock(message);
+
+                Optional<CompletedStep> caseEvent = ledger.findCaseEvent(envelope.id);
+
+                if (caseEvent.isPresent()) {
+                    log.info(
+                        "Envelope with ID {} has already been published to CCD ({}, case {}). Skipping publishing",
+                        envelope.id,
+                        caseEvent.get().step,
+                        caseEvent.get().caseId
+                    );
+                    return Optional.empty();
+                }
+
+                return Optional.of(
+                    eventPublisherContainer.getPublisher(envelope.classification, getCaseRetriever(envelope))
+                );
+            },
+            jurisdictionLanes.forJurisdiction(envelope.jurisdiction)
+        );
+    }
+
+    /**
+     * Publishes the envelope to CCD. Time it takes and whether CCD copes with it drive the concurrency limit.
+     * Calls suspended by the circuit breaker and failures unrelated to CCD load, e.g. an invalid envelope,
+     * don't affect the limit.
+     */
+    private CompletableFuture<Void> publish(IMessage message, EventPublisher eventPublisher, Envelope envelope) {
+        return CompletableFuture.runAsync(
+            () -> {
+                checkLock(message);
+
+                long start = System.nanoTime();
+
+                try {
+                    eventPublisher.publish(envelope);
+                } catch (FeignException exception) {
+                    concurrencyLimit.onSample(System.nanoTime() - start, CcdCircuitBreakers.isFailure(exception));
+                    throw exception;
+                }
+
+                concurrencyLimit.onSample(System.nanoTime() - start, false);
+            },
+            jurisdictionLanes.forJurisdiction(envelope.jurisdiction)
+        );
+    }
+
+    /**
+     * Stops processing of the message before the next CCD call, when its lock has been lost.
+     * Calls already made are not interrupted.
+     */
+    private void checkLock(IMessage message) {
+        if (lockRenewer.isLockLost(message)) {
+            throw new LockLostException("Lock of message with ID " + message.getMessageId() + " has been lost");
+        }
+    }
+
+    private CompletableFuture<Void> notifyProcessed(Envelope envelope) {
+        long start = System.nanoTime();
+
+        // notifier may complete the notification later, e.g. when sending notifications in batches
+        return CompletableFuture
+            .supplyAsync(() -> sendNotificationIfNotSent(envelope.id), processingExecutor)
+            .thenCompose(Function.identity())
+            .whenComplete((notified, exception) ->
+                metrics.timer(NOTIFICATION).record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+            );
+    }
+
+    private CompletableFuture<Void> sendNotificationIfNotSent(String envelopeId) {
+        if (ledger.isNotificationSent(envelopeId)) {
+            log.info("Notification about envelope with ID {} has already been sent", envelopeId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return processedEnvelopeNotifier
+            .notifyAsync(envelopeId)
+            .thenRunAsync(() -> ledger.recordNotificationSent(envelopeId), processingExecutor);
+    }
+
+    private MessageProcessingResult handleParsingError(IMessage message, Throwable throwable) {
+        if (throwable instanceof RejectedExecutionException) {
+            // envelope processing pool is full - the message will be delivered again later
+            log.warn("Rejected message with ID {}. {}", message.getMessageId(), throwable.getMessage());
+            return new MessageProcessingResult(REJECTED);
+        } else if (throwable instanceof InvalidMessageException) {
+            log.error("Rejected message with ID {}, because it's invalid", message.getMessageId(), throwable);
+            return new MessageProcessingResult(UNRECOVERABLE_FAILURE, (Exception) throwable);
+        } else {
+            logMessageProcessingError(message, null, throwable);
             return new MessageProcessingResult(POTENTIALLY_RECOVERABLE_FAILURE);
         }
     }
 
+    private MessageProcessingResult handleProcessingError(IMessage message, Envelope envelope, Throwable throwable) {
+        if (throwable instanceof RejectedExecutionException) {
+            // lane of the jurisdiction or processing pool is full - the message will be delivered again later
+            log.warn(
+                "Rejected envelope of {} jurisdiction. Message ID: {}. {}",
+                envelope.jurisdiction,
+                message.getMessageId(),
+                throwable.getMessage()
+            );
+            return new MessageProcessingResult(REJECTED);
+        }
+
+        if (throwable instanceof CcdUnavailableException) {
+            log.warn(
+                "Returning message with ID {} to the queue. {}",
+                message.getMessageId(),
+                throwable.getMessage()
+            );
+            return new MessageProcessingResult(DEPENDENCY_UNAVAILABLE, (Exception) throwable);
+        }
+
+        if (throwable instanceof LockLostException) {
+            log.warn("Stopped processing message with ID {}. {}", message.getMessageId(), throwable.getMessage());
+            return new MessageProcessingResult(LOCK_LOST, (Exception) throwable);
+        }
+
+        logMessageProcessingError(message, envelope, throwable);
+
+        if (throwable instanceof LedgerException) {
+            // CCD may have been changed without the ledger knowing - next delivery could repeat the change
+            return new MessageProcessingResult(UNRECOVERABLE_FAILURE, (Exception) throwable);
+        }
+
+        if (throwable instanceof NotificationSendingException && !ledger.isShared()) {
+            // CCD changes have been made. Next delivery may go to another instance or come after restart,
+            // where the ledger doesn't know about them, so it's better not to repeat them
+            return new MessageProcessingResult(UNRECOVERABLE_FAILURE, (Exception) throwable);
+        }
+
+        // completed steps are in the ledger, so the next delivery doesn't repeat CCD changes
+        return new MessageProcessingResult(POTENTIALLY_RECOVERABLE_FAILURE);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    }
+
     private void tryFinaliseProcessedMessage(IMessage message, MessageProcessingResult processingResult) {
         try {
             finaliseProcessedMessage(message, processingResult);
@@ -134,13 +450,32 @@ public class EnvelopeEventProcessor implements IMessageHandler {
 
                 log.info("Message with ID {} has been dead-lettered", message.getMessageId());
                 break;
-            case POTENTIALLY_RECOVERABLE_FAILURE:
-                // do nothing - let the message lock expire
+            case DEPENDENCY_UNAVAILABLE:
+                // delivered again once CCD may accept calls, keeping the redelivery count
+                Duration retryAfter = ((CcdUnavailableException) processingResult.exception).retryAfter;
+
+                sendAgain(message, redeliveryPolicy.redeliveryCount(message), Instant.now().plus(retryAfter));
                 log.info(
-                    "Allowing message with ID {} to return to queue (delivery attempt {})",
+                    "Message with ID {} has been returned to the queue, to be delivered in {} ms",
                     message.getMessageId(),
-                    message.getDeliveryCount() + 1
+                    retryAfter.toMillis()
+                );
+                break;
+            case REJECTED:
+                // not a processing failure, so it doesn't use up redeliveries
+                sendAgain(
+                    message,
+                    redeliveryPolicy.redeliveryCount(message),
+                    Instant.now().plus(redeliveryPolicy.delay(0))
                 );
+                log.info("Message with ID {} has been returned to the queue for later", message.getMessageId());
+                break;
+            case POTENTIALLY_RECOVERABLE_FAILURE:
+                redeliver(message);
+                break;
+            case LOCK_LOST:
+                // message can't be settled without its lock
+                log.info("Message with ID {} has been left for redelivery", message.getMessageId());
                 break;
             default:
                 throw new MessageProcessingException(
@@ -149,6 +484,80 @@ public class EnvelopeEventProcessor implements IMessageHandler {
         }
     }
 
+    /**
+     * Schedules a copy of the message to be delivered after a delay and completes the original one.
+     * When scheduling or completing fails, the message returns to the queue once its lock expires.
+     */
+    private void redeliver(IMessage message) throws InterruptedException, ServiceBusException {
+        int redeliveryCount = redeliveryPolicy.redeliveryCount(message);
+
+        if (!redeliveryPolicy.canRedeliver(redeliveryCount)) {
+            messageOperations.deadLetter(
+                message.getLockToken(),
+                "Too many processing attempts",
+                "Message has been redelivered " + redeliveryCount + " times"
+            );
+
+            log.info(
+                "Message with ID {} has been dead-lettered after {} redeliveries",
+                message.getMessageId(),
+                redeliveryCount
+            );
+            return;
+        }
+
+        Duration delay = redeliveryPolicy.delay(redeliveryCount);
+
+        sendAgain(message, redeliveryCount + 1, Instant.now().plus(delay));
+
+        log.info(
+            "Scheduled message with ID {} to be delivered again in {} ms (redelivery {})",
+            message.getMessageId(),
+            delay.toMillis(),
+            redeliveryCount + 1
+        );
+    }
+
+    /**
+     * Schedules a copy of the message, with given redelivery count, and completes the original one.
+     *
+     * <p>When the original can't be completed, it's going to be delivered again anyway, so the copy
+     * is cancelled. The copy has its own message ID - Service Bus wouldn't take it for a duplicate.</p>
+     */
+    private void sendAgain(
+        IMessage message,
+        int redeliveryCount,
+        Instant deliveryTime
+    ) throws InterruptedException, ServiceBusException {
+        long sequenceNumber = messageOperations.scheduleRedelivery(message, redeliveryCount, deliveryTime);
+
+        try {
+            messageOperations.complete(message.getLockToken());
+        } catch (Exception exception) {
+            cancelScheduledRedelivery(message, sequenceNumber);
+            throw exception;
+        }
+    }
+
+    private void cancelScheduledRedelivery(IMessage message, long sequenceNumber) {
+        try {
+            messageOperations.cancelScheduledRedelivery(sequenceNumber);
+        } catch (InterruptedException exception) {
+            logCancelError(message, exception);
+            Thread.currentThread().interrupt();
+        } catch (Exception exception) {
+            logCancelError(message, exception);
+        }
+    }
+
+    private void logCancelError(IMessage message, Exception exception) {
+        log.error(
+            "Failed to cancel scheduled copy of message with ID {}. The envelope may be processed twice",
+            message.getMessageId(),
+            exception
+        );
+    }
+
     private void logMessageFinaliseError(
         IMessage message,
         MessageProcessingResultType processingResultType,
@@ -167,10 +576,12 @@ public class EnvelopeEventProcessor implements IMessageHandler {
         log.error("Error while handling message at stage: " + phase, exception);
     }
 
-    private Supplier<CaseDetails> getCaseRetriever(final Envelope envelope) {
+    private Supplier<Optional<CaseMetadata>> getCaseRetriever(final Envelope envelope) {
         return () -> Strings.isNullOrEmpty(envelope.caseRef)
-            ? null
-            : caseRetriever.retrieve(envelope.jurisdiction, envelope.caseRef);
+            ? Optional.empty()
+            : metrics
+                .timer(CASE_RETRIEVAL)
+                .record(() -> caseMetadataCache.get(envelope.jurisdiction, envelope.caseRef));
     }
 
     private void logMessageParsed(IMessage message, Envelope envelope) {
@@ -185,7 +596,7 @@ public class EnvelopeEventProcessor implements IMessageHandler {
         );
     }
 
-    private void logMessageProcessingError(IMessage message, Envelope envelope, Exception exception) {
+    private void logMessageProcessingError(IMessage message, Envelope envelope, Throwable exception) {
         String baseMessage = String.format("Failed to process message with ID %s.", message.getMessageId());
 
         String fullMessage = envelope != null
@@ -0,0 +1,167 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Separate processing lane for each jurisdiction.
+ *
+ * <p>Every jurisdiction configured in {@link JurisdictionToUserMapping} gets its own bounded pool,
+ * so when CCD is slow or failing for one of them, only that jurisdiction's envelopes wait.
+ * Envelopes of jurisdictions not known up front share the default lane.</p>
+ *
+ * <p>Each lane also limits the number of its envelopes in flight, so that one jurisdiction can't take
+ * every message the queue client hands over at a time. The limit should stay below the number of
+ * concurrent calls of the envelopes queue.</p>
+ *
+ * <p>A full lane rejects new work instead of blocking the caller -
+ * the message goes back to the queue and is retried later.</p>
+ */
+@Component
+public class JurisdictionLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(JurisdictionLanes.class);
+
+    static final String DEFAULT_LANE = "default";
+
+    private final Map<String, Lane> lanes;
+
+    public JurisdictionLanes(
+        JurisdictionToUserMapping users,
+        @Value("${envelope-processing.lanes.thread-count}") int threadCount,
+        @Value("${envelope-processing.lanes.queue-capacity}") int queueCapacity,
+        @Value("${envelope-processing.lanes.max-in-flight}") int maxInFlight,
+        MeterRegistry meterRegistry
+    ) {
+        Map<String, Lane> allLanes = new HashMap<>();
+
+        users.getUsers().keySet().forEach(jurisdiction ->
+            allLanes.put(jurisdiction, new Lane(jurisdiction, threadCount, queueCapacity, maxInFlight, meterRegistry))
+        );
+        allLanes.put(DEFAULT_LANE, new Lane(DEFAULT_LANE, threadCount, queueCapacity, maxInFlight, meterRegistry));
+
+        this.lanes = unmodifiableMap(allLanes);
+
+        log.info(
+            "Created processing lanes: {}. Threads per lane: {}, queue capacity: {}, max in flight: {}",
+            lanes.keySet(),
+            threadCount,
+            queueCapacity,
+            maxInFlight
+        );
+    }
+
+    /**
+     * Executor of the lane given jurisdiction belongs to.
+     * Throws {@link RejectedExecutionException} on submission when the lane is full.
+     */
+    public Executor forJurisdiction(String jurisdiction) {
+        return laneOf(jurisdiction).executor;
+    }
+
+    /**
+     * Takes a slot for an envelope of given jurisdiction, if its lane has fewer envelopes in flight
+     * than allowed. Taken slot must be given back with {@link #leave(String)}.
+     *
+     * @return true if the slot has been taken
+     */
+    public boolean tryEnter(String jurisdiction) {
+        Lane lane = laneOf(jurisdiction);
+
+        if (lane.inFlight.tryAcquire()) {
+            return true;
+        }
+
+        lane.rejections.increment();
+        return false;
+    }
+
+    public void leave(String jurisdiction) {
+        laneOf(jurisdiction).inFlight.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    private Lane laneOf(String jurisdiction) {
+        Lane lane = jurisdiction == null ? null : lanes.get(jurisdiction.toLowerCase());
+
+        return lane == null ? lanes.get(DEFAULT_LANE) : lane;
+    }
+
+    private static ThreadPoolExecutor createExecutor(
+        String name,
+        int threadCount,
+        int queueCapacity,
+        Counter rejections,
+        MeterRegistry meterRegistry
+    ) {
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat("lane-" + name + "-%d").build(),
+            (task, executor) -> {
+                rejections.increment();
+                throw new RejectedExecutionException("Processing lane " + name + " is full");
+            }
+        );
+
+        Gauge
+            .builder("envelope.lane.queue.size", lane, executor -> executor.getQueue().size())
+            .tag("lane", name)
+            .register(meterRegistry);
+
+        Gauge
+            .builder("envelope.lane.active", lane, ThreadPoolExecutor::getActiveCount)
+            .tag("lane", name)
+            .register(meterRegistry);
+
+        return lane;
+    }
+
+    private static class Lane {
+
+        final ThreadPoolExecutor executor;
+        final Semaphore inFlight;
+        final Counter rejections;
+
+        Lane(String name, int threadCount, int queueCapacity, int maxInFlight, MeterRegistry meterRegistry) {
+            this.rejections = Counter
+                .builder("envelope.lane.rejected")
+                .tag("lane", name)
+                .register(meterRegistry);
+
+            this.executor = createExecutor(name, threadCount, queueCapacity, rejections, meterRegistry);
+            this.inFlight = new Semaphore(maxInFlight);
+
+            Gauge
+                .builder("envelope.lane.in_flight", inFlight, semaphore -> maxInFlight - semaphore.availablePermits())
+                .tag("lane", name)
+                .register(meterRegistry);
+        }
+    }
+}
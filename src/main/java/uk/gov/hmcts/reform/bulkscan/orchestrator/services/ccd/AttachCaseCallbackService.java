@@ -5,6 +5,7 @@ import io.vavr.control.Validation;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
@@ -12,18 +13,20 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.stream.Collectors.toList;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackValidations.hasAScannedRecord;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackValidations.hasAnId;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackValidations.hasCaseReference;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackValidations.hasJurisdiction;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents.checkForDuplicatesOrElse;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents.getDocumentNumbers;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents.getScannedDocuments;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents.insertNewRecords;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.DocumentIndex.getScannedDocuments;
 
 @Service
 public class AttachCaseCallbackService {
@@ -31,10 +34,17 @@ public class AttachCaseCallbackService {
     private static final Logger log = LoggerFactory.getLogger(AttachCaseCallbackService.class);
     private static final String ATTACH_CASE_REFERENCE_FIELD_NAME = "attachToCaseReference";
 
+    static final String REJECTED_ERROR = "Internal Error: too many CCD calls in progress, please try again";
+
     private final CcdApi ccdApi;
+    private final Executor ccdCallbackExecutor;
 
-    public AttachCaseCallbackService(CcdApi ccdApi) {
+    public AttachCaseCallbackService(
+        CcdApi ccdApi,
+        @Qualifier("ccd-callback") Executor ccdCallbackExecutor
+    ) {
         this.ccdApi = ccdApi;
+        this.ccdCallbackExecutor = ccdCallbackExecutor;
     }
 
     /**
@@ -43,6 +53,16 @@ public class AttachCaseCallbackService {
      * @return List of errors
      */
     public List<String> process(CaseDetails exceptionRecord) {
+        return process(exceptionRecord, new CallbackDeadline());
+    }
+
+    /**
+     * Attaches exception record to a case, unless the callback times out before the attachment
+     * is submitted to CCD.
+     *
+     * @return List of errors
+     */
+    public List<String> process(CaseDetails exceptionRecord, CallbackDeadline deadline) {
         return Validation
             .combine(
                 hasJurisdiction(exceptionRecord),
@@ -50,7 +70,7 @@ public class AttachCaseCallbackService {
                 hasAnId(exceptionRecord),
                 hasAScannedRecord(exceptionRecord)
             )
-            .ap(this::attachToCase)
+            .ap((jurisdiction, caseRef, id, documents) -> attachToCase(jurisdiction, caseRef, id, documents, deadline))
             .getOrElseGet(Value::toJavaList);
     }
 
@@ -60,61 +80,107 @@ public class AttachCaseCallbackService {
         String exceptionRecordJurisdiction,
         String targetCaseRef,
         Long exceptionRecordId,
-        List<Map<String, Object>> exceptionRecordDocuments
+        List<Map<String, Object>> exceptionRecordDocuments,
+        CallbackDeadline deadline
     ) {
         try {
-            doAttachCase(exceptionRecordJurisdiction, targetCaseRef, exceptionRecordDocuments, exceptionRecordId);
+            doAttachCase(
+                exceptionRecordJurisdiction,
+                targetCaseRef,
+                exceptionRecordDocuments,
+                exceptionRecordId,
+                deadline
+            );
             return emptyList();
         } catch (CallbackException e) {
             log.error(e.getMessage(), e);
             return singletonList(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected CCD calls of attach case callback. Case reference: {}", targetCaseRef, e);
+            return singletonList(REJECTED_ERROR);
         }
     }
 
+    /**
+     * Target case and exception record are read from CCD at the same time. Attach event is started
+     * as soon as the target case is known to have none of the documents, while the exception record
+     * may still be being read. Errors are reported in the same order as if the calls were sequential:
+     * target case, exception record, duplicate documents, start event.
+     * Nothing is submitted once the callback has timed out.
+     */
     private void doAttachCase(
         String exceptionRecordJurisdiction,
         String targetCaseRef,
         List<Map<String, Object>> exceptionRecordDocuments,
-        Long exceptionRecordId
+        Long exceptionRecordId,
+        CallbackDeadline deadline
     ) {
-        CaseDetails theCase = ccdApi.getCase(targetCaseRef, exceptionRecordJurisdiction);
-        List<Map<String, Object>> targetCaseDocuments = getScannedDocuments(theCase);
+        CompletableFuture<CaseDetails> targetCase = supplyAsync(
+            () -> ccdApi.getCase(targetCaseRef, exceptionRecordJurisdiction),
+            ccdCallbackExecutor
+        );
+
+        CompletableFuture<CaseDetails> exceptionRecord = supplyAsync(
+            () -> ccdApi.getCase(exceptionRecordId.toString(), exceptionRecordJurisdiction),
+            ccdCallbackExecutor
+        );
 
-        verifyExceptionRecordIsNotAttachedToCase(exceptionRecordJurisdiction, exceptionRecordId);
+        CompletableFuture<DocumentIndex> documents = targetCase.thenApply(
+            theCase -> DocumentIndex.of(exceptionRecordDocuments, getScannedDocuments(theCase))
+        );
 
-        //This is done so exception record does not change state if there is a document error
-        checkForDuplicatesOrElse(
-            exceptionRecordDocuments,
-            targetCaseDocuments,
-            ids -> throwDuplicateError(targetCaseRef, ids)
+        CompletableFuture<StartEventResponse> startEvent = targetCase.thenCombineAsync(
+            documents,
+            (theCase, index) -> {
+                //This is done so exception record does not change state if there is a document error
+                if (!index.getDuplicates().isEmpty()) {
+                    throwDuplicateError(targetCaseRef, index.getDuplicates());
+                }
+
+                return ccdApi.startAttachScannedDocs(theCase);
+            },
+            ccdCallbackExecutor
         );
 
+        CaseDetails theCase = join(targetCase);
+
+        verifyExceptionRecordIsNotAttachedToCase(join(exceptionRecord));
+
+        StartEventResponse event = join(startEvent);
+        DocumentIndex index = join(documents);
+
         attachExceptionRecordReference(exceptionRecordDocuments, exceptionRecordId);
 
-        StartEventResponse event = ccdApi.startAttachScannedDocs(theCase);
+        if (!deadline.startSubmit()) {
+            throw new CallbackException("Callback timed out before exception record could be attached to the case");
+        }
 
         ccdApi.attachExceptionRecord(
             theCase,
-            insertNewRecords(exceptionRecordDocuments, targetCaseDocuments),
-            createEventSummary(theCase, exceptionRecordId, exceptionRecordDocuments),
+            index.mergedDocuments(),
+            createEventSummary(theCase, exceptionRecordId, index.getExceptionDocumentNumbers()),
             event
         );
     }
 
-    private void verifyExceptionRecordIsNotAttachedToCase(
-        String exceptionRecordJurisdiction,
-        Long exceptionRecordReference
-    ) {
-        CaseDetails fetchedExceptionRecord = ccdApi.getCase(
-            exceptionRecordReference.toString(),
-            exceptionRecordJurisdiction
-        );
-
+    private void verifyExceptionRecordIsNotAttachedToCase(CaseDetails fetchedExceptionRecord) {
         if (isExceptionRecordAttachedToCase(fetchedExceptionRecord)) {
             throw new CallbackException("Exception record is already attached to a case");
         }
     }
 
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+
+            throw exception;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void attachExceptionRecordReference(
         List<Map<String, Object>> exceptionDocuments,
@@ -140,12 +206,12 @@ public class AttachCaseCallbackService {
     private String createEventSummary(
         CaseDetails theCase,
         Long exceptionRecordId,
-        List<Map<String, Object>> exceptionDocuments
+        List<String> exceptionDocumentNumbers
     ) {
         return String.format(
             "Attaching exception record(%d) document numbers:%s to case:%d",
             exceptionRecordId,
-            getDocumentNumbers(exceptionDocuments),
+            exceptionDocumentNumbers,
             theCase.getId()
         );
     }
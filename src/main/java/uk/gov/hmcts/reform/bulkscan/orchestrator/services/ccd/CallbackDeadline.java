@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decides between timing out a callback and submitting its changes to CCD - only one of them happens.
+ *
+ * <p>Once a callback has timed out, its changes are not submitted, as the caller has already been told
+ * it failed. Once the changes are being submitted, the callback doesn't time out any more.</p>
+ */
+public class CallbackDeadline {
+
+    private enum State {
+        PENDING,
+        SUBMITTING,
+        EXPIRED
+    }
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+    /**
+     * Claims the callback for submitting its changes.
+     *
+     * @return true if the changes can be submitted, false if the callback has timed out
+     */
+    public boolean startSubmit() {
+        return state.compareAndSet(State.PENDING, State.SUBMITTING);
+    }
+
+    /**
+     * Times out the callback, unless its changes are already being submitted.
+     *
+     * @return true if the callback has timed out, false if its changes are being submitted
+     */
+    public boolean expire() {
+        return state.compareAndSet(State.PENDING, State.EXPIRED);
+    }
+}
@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+/**
+ * Part of CCD case details needed to route envelopes to the case.
+ */
+public class CaseMetadata {
+
+    public final Long id;
+    public final String jurisdiction;
+    public final String caseTypeId;
+
+    public CaseMetadata(Long id, String jurisdiction, String caseTypeId) {
+        this.id = id;
+        this.jurisdiction = jurisdiction;
+        this.caseTypeId = caseTypeId;
+    }
+
+    public static CaseMetadata from(CaseDetails caseDetails) {
+        return new CaseMetadata(caseDetails.getId(), caseDetails.getJurisdiction(), caseDetails.getCaseTypeId());
+    }
+}
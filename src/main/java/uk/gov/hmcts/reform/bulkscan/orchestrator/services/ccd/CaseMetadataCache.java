@@ -0,0 +1,126 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches metadata of CCD cases envelopes are routed to, including the cases that don't exist.
+ *
+ * <p>Cases that don't exist are cached for a shorter time than the existing ones,
+ * so that a case created in the meantime is noticed quickly.
+ * Entry of a case is removed as soon as an event is submitted for it.</p>
+ */
+@Component
+public class CaseMetadataCache {
+
+    private final CaseRetriever caseRetriever;
+    private final Ticker ticker;
+    private final long missingCaseTtlNanos;
+
+    private final Cache<String, CachedCase> cache;
+
+    @Autowired
+    public CaseMetadataCache(
+        CaseRetriever caseRetriever,
+        MeterRegistry meterRegistry,
+        @Value("${ccd.case-metadata-cache.max-size}") long maxSize,
+        @Value("${ccd.case-metadata-cache.ttl-seconds}") long ttlSeconds,
+        @Value("${ccd.case-metadata-cache.missing-case-ttl-seconds}") long missingCaseTtlSeconds
+    ) {
+        this(
+            caseRetriever,
+            meterRegistry,
+            maxSize,
+            Duration.ofSeconds(ttlSeconds),
+            Duration.ofSeconds(missingCaseTtlSeconds),
+            Ticker.systemTicker()
+        );
+    }
+
+    CaseMetadataCache(
+        CaseRetriever caseRetriever,
+        MeterRegistry meterRegistry,
+        long maxSize,
+        Duration ttl,
+        Duration missingCaseTtl,
+        Ticker ticker
+    ) {
+        this.caseRetriever = caseRetriever;
+        this.ticker = ticker;
+        this.missingCaseTtlNanos = missingCaseTtl.toNanos();
+
+        this.cache = CacheBuilder
+            .newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "ccd.case.metadata");
+    }
+
+    /**
+     * Finds metadata of the case, retrieving the case from CCD when it is not cached.
+     *
+     * @return metadata of the case or empty when the case doesn't exist or the reference is invalid
+     */
+    public Optional<CaseMetadata> get(String jurisdiction, String caseRef) {
+        String key = key(jurisdiction, caseRef);
+
+        CachedCase cached = load(key, jurisdiction, caseRef);
+
+        if (!cached.metadata.isPresent() && ticker.read() - cached.loadedAtNanos > missingCaseTtlNanos) {
+            cache.asMap().remove(key, cached);
+            cached = load(key, jurisdiction, caseRef);
+        }
+
+        return cached.metadata;
+    }
+
+    public void invalidate(String jurisdiction, String caseRef) {
+        cache.invalidate(key(jurisdiction, caseRef));
+    }
+
+    private CachedCase load(String key, String jurisdiction, String caseRef) {
+        try {
+            return cache.get(key, () -> new CachedCase(
+                Optional.ofNullable(caseRetriever.retrieve(jurisdiction, caseRef)).map(CaseMetadata::from),
+                ticker.read()
+            ));
+        } catch (UncheckedExecutionException | ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+
+            throw new IllegalStateException("Failed to retrieve case " + caseRef, exception.getCause());
+        }
+    }
+
+    private static String key(String jurisdiction, String caseRef) {
+        return jurisdiction.toLowerCase() + ":" + caseRef;
+    }
+
+    private static class CachedCase {
+
+        final Optional<CaseMetadata> metadata;
+        final long loadedAtNanos;
+
+        CachedCase(Optional<CaseMetadata> metadata, long loadedAtNanos) {
+            this.metadata = metadata;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
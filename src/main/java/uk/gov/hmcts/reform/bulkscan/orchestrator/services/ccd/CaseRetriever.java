@@ -9,6 +9,7 @@ import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @Service
 public class CaseRetriever {
@@ -19,9 +20,16 @@ public class CaseRetriever {
 
     private final CoreCaseDataApi coreCaseDataApi;
 
-    public CaseRetriever(CcdAuthenticatorFactory factory, CoreCaseDataApi coreCaseDataApi) {
+    private final CcdCircuitBreakers circuitBreakers;
+
+    public CaseRetriever(
+        CcdAuthenticatorFactory factory,
+        CoreCaseDataApi coreCaseDataApi,
+        CcdCircuitBreakers circuitBreakers
+    ) {
         this.factory = factory;
         this.coreCaseDataApi = coreCaseDataApi;
+        this.circuitBreakers = circuitBreakers;
     }
 
     @SuppressWarnings("squid:S106")
@@ -30,10 +38,11 @@ public class CaseRetriever {
         CcdAuthenticator authenticator = factory.createForJurisdiction(jurisdiction);
 
         try {
-            CaseDetails caseDetails = coreCaseDataApi.getCase(
-                authenticator.getUserToken(),
-                authenticator.getServiceToken(),
-                caseRef
+            // case type is not known until the case is read
+            CaseDetails caseDetails = circuitBreakers.call(
+                jurisdiction,
+                null,
+                () -> coreCaseDataApi.getCase(authenticator.getUserToken(), authenticator.getServiceToken(), caseRef)
             );
 
             logCaseDetails(caseDetails);
@@ -47,6 +56,9 @@ public class CaseRetriever {
                 log.info("Invalid Case Ref: {}, jurisdiction: {}", caseRef, jurisdiction, exception);
                 return null;
             } else {
+                if (exception.status() == UNAUTHORIZED.value()) {
+                    factory.removeFromIdamCache(jurisdiction, authenticator);
+                }
                 throw exception;
             }
         }
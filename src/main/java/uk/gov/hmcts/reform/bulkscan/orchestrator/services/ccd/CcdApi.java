@@ -19,24 +19,35 @@ import static java.lang.String.format;
  */
 @Component
 public class CcdApi {
+    static final String CCD_UNAVAILABLE_ERROR = "Internal Error: CCD is unavailable, please try again later";
+
     private final CoreCaseDataApi feignCcdApi;
     private final CcdAuthenticatorFactory authenticatorFactory;
+    private final CcdCircuitBreakers circuitBreakers;
 
-    public CcdApi(CoreCaseDataApi feignCcdApi, CcdAuthenticatorFactory authenticator) {
+    public CcdApi(
+        CoreCaseDataApi feignCcdApi,
+        CcdAuthenticatorFactory authenticator,
+        CcdCircuitBreakers circuitBreakers
+    ) {
         this.feignCcdApi = feignCcdApi;
         this.authenticatorFactory = authenticator;
+        this.circuitBreakers = circuitBreakers;
     }
 
-    private CaseDetails retrieveCase(String caseRef, String jurisdiction) {
-        CcdAuthenticator authenticator = authenticatorFactory.createForJurisdiction(jurisdiction);
-        return feignCcdApi.getCase(authenticator.getUserToken(), authenticator.getServiceToken(), caseRef);
+    private CaseDetails retrieveCase(String caseRef, CcdAuthenticator authenticator, String jurisdiction) {
+        return circuitBreakers.call(
+            jurisdiction,
+            null,
+            () -> feignCcdApi.getCase(authenticator.getUserToken(), authenticator.getServiceToken(), caseRef)
+        );
     }
 
     private StartEventResponse startAttachScannedDocs(String caseRef,
                                                       CcdAuthenticator authenticator,
                                                       String jurisdiction,
                                                       String caseTypeId) {
-        return feignCcdApi.startEventForCaseWorker(
+        return circuitBreakers.call(jurisdiction, caseTypeId, () -> feignCcdApi.startEventForCaseWorker(
             authenticator.getUserToken(),
             authenticator.getServiceToken(),
             authenticator.getUserDetails().getId(),
@@ -44,32 +55,41 @@ public class CcdApi {
             caseTypeId,
             caseRef,
             "attachScannedDocs"
-        );
+        ));
     }
 
     @Nonnull
     StartEventResponse startAttachScannedDocs(CaseDetails theCase) {
         String caseRef = String.valueOf(theCase.getId());
+        CcdAuthenticator authenticator = null;
         try {
-            CcdAuthenticator authenticator = authenticatorFactory.createForJurisdiction(theCase.getJurisdiction());
+            authenticator = authenticatorFactory.createForJurisdiction(theCase.getJurisdiction());
             return startAttachScannedDocs(caseRef, authenticator, theCase.getJurisdiction(), theCase.getCaseTypeId());
         } catch (FeignException e) {
+            removeRejectedToken(e, theCase.getJurisdiction(), authenticator);
             throw error(e, "Internal Error: start event call failed case: %s Error: %s", caseRef, e.status());
+        } catch (CcdUnavailableException e) {
+            throw new CallbackException(CCD_UNAVAILABLE_ERROR, e);
         }
     }
 
     @Nonnull
     @SuppressWarnings("squid:S1135")
     CaseDetails getCase(String caseRef, String jurisdiction) {
+        CcdAuthenticator authenticator = null;
         try {
+            authenticator = authenticatorFactory.createForJurisdiction(jurisdiction);
             //TODO: RPE-823 merge with `CaseRetriever` to a consistent api adaptor
-            return retrieveCase(caseRef, jurisdiction);
+            return retrieveCase(caseRef, authenticator, jurisdiction);
         } catch (FeignException e) {
+            removeRejectedToken(e, jurisdiction, authenticator);
             if (e.status() == 404) {
                 throw error(e, "Could not find case: %s", caseRef);
             } else {
                 throw error(e, "Internal Error: Could not retrieve case: %s Error: %s", caseRef, e.status());
             }
+        } catch (CcdUnavailableException e) {
+            throw new CallbackException(CCD_UNAVAILABLE_ERROR, e);
         }
     }
 
@@ -80,8 +100,9 @@ public class CcdApi {
         String caseRef = String.valueOf(theCase.getId());
         String jurisdiction = theCase.getJurisdiction();
         String caseTypeId = theCase.getCaseTypeId();
+        CcdAuthenticator authenticator = null;
         try {
-            CcdAuthenticator authenticator = authenticatorFactory.createForJurisdiction(jurisdiction);
+            authenticator = authenticatorFactory.createForJurisdiction(jurisdiction);
             attachCall(caseRef,
                 authenticator,
                 data,
@@ -90,8 +111,11 @@ public class CcdApi {
                 caseTypeId,
                 Event.builder().summary(eventSummary).id(event.getEventId()).build());
         } catch (FeignException e) {
+            removeRejectedToken(e, jurisdiction, authenticator);
             throw error(e, "Internal Error: submitting attach file event failed case: %s Error: %s",
                 caseRef, e.status());
+        } catch (CcdUnavailableException e) {
+            throw new CallbackException(CCD_UNAVAILABLE_ERROR, e);
         }
     }
 
@@ -102,7 +126,7 @@ public class CcdApi {
                             String jurisdiction,
                             String caseTypeId,
                             Event eventInfo) {
-        feignCcdApi.submitEventForCaseWorker(
+        circuitBreakers.run(jurisdiction, caseTypeId, () -> feignCcdApi.submitEventForCaseWorker(
             authenticator.getUserToken(),
             authenticator.getServiceToken(),
             authenticator.getUserDetails().getId(),
@@ -115,7 +139,14 @@ public class CcdApi {
                 .event(eventInfo)
                 .eventToken(eventToken)
                 .build()
-        );
+        ));
+    }
+
+    // authenticator is null when the call to IDAM itself has failed
+    private void removeRejectedToken(FeignException exception, String jurisdiction, CcdAuthenticator authenticator) {
+        if (exception.status() == 401 && authenticator != null) {
+            authenticatorFactory.removeFromIdamCache(jurisdiction, authenticator);
+        }
     }
 
     private static CallbackException error(Exception e, String errorFmt, Object arg) {
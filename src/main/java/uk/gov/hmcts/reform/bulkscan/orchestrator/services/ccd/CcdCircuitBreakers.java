@@ -0,0 +1,226 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.base.Ticker;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Circuit breakers guarding CCD calls, one for each jurisdiction and case type.
+ *
+ * <p>After the configured number of consecutive failures (server errors, timeouts, throttling)
+ * the circuit opens and calls fail straight away with {@link CcdUnavailableException},
+ * without waiting for CCD. Once the open period has passed, a single trial call is let through -
+ * the circuit closes if it succeeds and opens again if it doesn't.</p>
+ *
+ * <p>Calls not related to a case type (e.g. reading a case by its reference) use the circuit
+ * of the whole jurisdiction.</p>
+ */
+@Component
+public class CcdCircuitBreakers {
+
+    private static final Logger log = LoggerFactory.getLogger(CcdCircuitBreakers.class);
+
+    static final String STATE_GAUGE = "ccd.circuit.state";
+    static final String OPENED_COUNTER = "ccd.circuit.opened";
+
+    static final String ANY_CASE_TYPE = "any";
+
+    // how long callers wait while the trial call of a half-open circuit is in progress
+    static final Duration TRIAL_IN_PROGRESS_RETRY = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Ticker ticker;
+
+    private final Map<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CcdCircuitBreakers(
+        MeterRegistry meterRegistry,
+        @Value("${ccd.circuit-breaker.failure-threshold}") int failureThreshold,
+        @Value("${ccd.circuit-breaker.open-seconds}") long openSeconds
+    ) {
+        this(meterRegistry, failureThreshold, Duration.ofSeconds(openSeconds), Ticker.systemTicker());
+    }
+
+    CcdCircuitBreakers(MeterRegistry meterRegistry, int failureThreshold, Duration openDuration, Ticker ticker) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Makes the CCD call, unless the circuit of given jurisdiction and case type is open.
+     *
+     * @param caseTypeId case type of the call, null when it is not known
+     * @throws CcdUnavailableException when the circuit is open
+     */
+    public <T> T call(String jurisdiction, String caseTypeId, Supplier<T> ccdCall) {
+        CircuitBreaker circuit = circuits.computeIfAbsent(
+            key(jurisdiction, caseTypeId),
+            key -> new CircuitBreaker(key, jurisdiction, caseTypeId)
+        );
+
+        circuit.acquire(ticker.read());
+
+        boolean recorded = false;
+
+        try {
+            T result = ccdCall.get();
+
+            circuit.onSuccess();
+            recorded = true;
+
+            return result;
+        } catch (RuntimeException exception) {
+            if (isFailure(exception)) {
+                circuit.onFailure(ticker.read());
+            } else {
+                // CCD has responded, only not the way the caller wanted
+                circuit.onSuccess();
+            }
+
+            recorded = true;
+            throw exception;
+        } finally {
+            if (!recorded) {
+                // e.g. an Error - says nothing about CCD, but a trial call must not stay in progress forever
+                circuit.releaseTrial();
+            }
+        }
+    }
+
+    public void run(String jurisdiction, String caseTypeId, Runnable ccdCall) {
+        call(jurisdiction, caseTypeId, () -> {
+            ccdCall.run();
+            return null;
+        });
+    }
+
+    /**
+     * Tells whether the exception thrown by a CCD call means CCD is struggling - the call failed to connect
+     * or timed out, or CCD responded with a server error or throttled the call.
+     */
+    public static boolean isFailure(RuntimeException exception) {
+        if (!(exception instanceof FeignException)) {
+            return false;
+        }
+
+        int status = ((FeignException) exception).status();
+
+        return exception instanceof RetryableException || status >= 500 || status == TOO_MANY_REQUESTS.value();
+    }
+
+    private static String key(String jurisdiction, String caseTypeId) {
+        return jurisdiction.toLowerCase() + ":" + (caseTypeId == null ? ANY_CASE_TYPE : caseTypeId.toLowerCase());
+    }
+
+    private enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private class CircuitBreaker {
+
+        private final String name;
+        private final Counter openings;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private boolean trialInProgress;
+
+        CircuitBreaker(String name, String jurisdiction, String caseTypeId) {
+            this.name = name;
+
+            String caseTypeTag = caseTypeId == null ? ANY_CASE_TYPE : caseTypeId.toLowerCase();
+
+            this.openings = Counter
+                .builder(OPENED_COUNTER)
+                .tag("jurisdiction", jurisdiction.toLowerCase())
+                .tag("case_type", caseTypeTag)
+                .register(meterRegistry);
+
+            Gauge
+                .builder(STATE_GAUGE, this, circuit -> circuit.currentState().ordinal())
+                .description("State of CCD circuit: 0 - closed, 1 - half-open, 2 - open")
+                .tag("jurisdiction", jurisdiction.toLowerCase())
+                .tag("case_type", caseTypeTag)
+                .register(meterRegistry);
+        }
+
+        synchronized void acquire(long nowNanos) {
+            switch (state) {
+                case OPEN:
+                    long openForNanos = nowNanos - openedAtNanos;
+
+                    if (openForNanos < openNanos) {
+                        throw new CcdUnavailableException(name, Duration.ofNanos(openNanos - openForNanos));
+                    }
+
+                    log.info("Letting trial call through CCD circuit {}", name);
+                    state = State.HALF_OPEN;
+                    trialInProgress = true;
+                    break;
+                case HALF_OPEN:
+                    if (trialInProgress) {
+                        throw new CcdUnavailableException(name, TRIAL_IN_PROGRESS_RETRY);
+                    }
+
+                    trialInProgress = true;
+                    break;
+                default:
+                    // closed - call is allowed
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                log.info("CCD circuit {} closed", name);
+            }
+
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInProgress = false;
+        }
+
+        synchronized void onFailure(long nowNanos) {
+            consecutiveFailures++;
+
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                if (state != State.OPEN) {
+                    log.warn("CCD circuit {} opened after {} consecutive failures", name, consecutiveFailures);
+                    openings.increment();
+                }
+
+                state = State.OPEN;
+                openedAtNanos = nowNanos;
+                trialInProgress = false;
+            }
+        }
+
+        synchronized void releaseTrial() {
+            trialInProgress = false;
+        }
+
+        synchronized State currentState() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling CCD when its circuit breaker is open.
+ */
+public class CcdUnavailableException extends RuntimeException {
+
+    // time after which CCD may accept calls again
+    public final Duration retryAfter;
+
+    public CcdUnavailableException(String circuit, Duration retryAfter) {
+        super("CCD calls are suspended for " + circuit + ". Retry after " + retryAfter.toMillis() + " ms");
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,136 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * Control numbers of exception record documents, matched against the documents of a case.
+ *
+ * <p>Exception record usually has a handful of documents while a case can have thousands,
+ * so only the exception record control numbers are hashed and the case documents are read once,
+ * without copying them.</p>
+ */
+final class DocumentIndex {
+
+    private static final String SCANNED_DOCUMENTS = "scannedDocuments";
+
+    private final List<Map<String, Object>> exceptionDocuments;
+    private final List<Map<String, Object>> existingDocuments;
+    private final List<String> exceptionDocumentNumbers;
+    private final Set<String> duplicates;
+
+    private DocumentIndex(
+        List<Map<String, Object>> exceptionDocuments,
+        List<Map<String, Object>> existingDocuments,
+        List<String> exceptionDocumentNumbers,
+        Set<String> duplicates
+    ) {
+        this.exceptionDocuments = exceptionDocuments;
+        this.existingDocuments = existingDocuments;
+        this.exceptionDocumentNumbers = exceptionDocumentNumbers;
+        this.duplicates = duplicates;
+    }
+
+    static DocumentIndex of(
+        List<Map<String, Object>> exceptionDocuments,
+        List<Map<String, Object>> existingDocuments
+    ) {
+        List<String> exceptionDocumentNumbers = new ArrayList<>(exceptionDocuments.size());
+        Set<String> lookup = new HashSet<>();
+
+        for (Map<String, Object> document : exceptionDocuments) {
+            String controlNumber = getControlNumber(document);
+            exceptionDocumentNumbers.add(controlNumber);
+
+            if (!controlNumber.isEmpty()) {
+                lookup.add(controlNumber);
+            }
+        }
+
+        Set<String> duplicates = new LinkedHashSet<>();
+
+        if (!lookup.isEmpty()) {
+            for (Map<String, Object> document : existingDocuments) {
+                String controlNumber = getControlNumber(document);
+
+                if (lookup.contains(controlNumber)) {
+                    duplicates.add(controlNumber);
+                }
+            }
+        }
+
+        return new DocumentIndex(
+            exceptionDocuments,
+            existingDocuments,
+            Collections.unmodifiableList(exceptionDocumentNumbers),
+            Collections.unmodifiableSet(duplicates)
+        );
+    }
+
+    /**
+     * Scanned documents of the case, as stored in its data. Empty when the case has none.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> getScannedDocuments(CaseDetails theCase) {
+        return (List<Map<String, Object>>)
+            Optional.ofNullable(theCase.getData())
+                .map(map -> map.get(SCANNED_DOCUMENTS))
+                .orElseGet(Lists::newArrayList);
+    }
+
+    /**
+     * Control numbers of exception record documents, in document order. Empty for documents without one.
+     */
+    List<String> getExceptionDocumentNumbers() {
+        return exceptionDocumentNumbers;
+    }
+
+    /**
+     * Control numbers of exception record documents the case already has.
+     */
+    Set<String> getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Case data with the exception record documents appended to the documents of the case.
+     */
+    Map<String, Object> mergedDocuments() {
+        List<Object> documents = ImmutableList
+            .builderWithExpectedSize(existingDocuments.size() + exceptionDocuments.size())
+            .addAll(existingDocuments)
+            .addAll(exceptionDocuments)
+            .build();
+
+        return ImmutableMap.of(SCANNED_DOCUMENTS, documents);
+    }
+
+    private static String getControlNumber(Map<String, Object> document) {
+        if (document != null) {
+            Object value = document.get("value");
+
+            if (value instanceof Map) {
+                Object controlNumber = ((Map<?, ?>) value).get("controlNumber");
+
+                if (controlNumber instanceof String) {
+                    return (String) controlNumber;
+                }
+            }
+        }
+
+        return "";
+    }
+}
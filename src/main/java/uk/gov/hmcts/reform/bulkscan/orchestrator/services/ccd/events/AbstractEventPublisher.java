@@ -1,11 +1,18 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events;
 
+import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseData;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadataCache;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticator;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticatorFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdCircuitBreakers;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.EnvelopeLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
@@ -13,6 +20,9 @@ import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.Event;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.CCD_START_EVENT;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.CCD_SUBMIT_EVENT;
+
 /**
  * Implementation of strategy.
  * Any strategy is invoking steps as follows:
@@ -52,6 +62,9 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
  * private final EventPublisher somePublisher;}</pre>
  * <p/>
  * Then include each publisher in {@link EventPublisherContainer}
+ * <p/>
+ * CCD calls go through the circuit breaker of envelope's jurisdiction and the case type,
+ * see {@link CcdCircuitBreakers}.
  */
 abstract class AbstractEventPublisher {
 
@@ -63,6 +76,18 @@ abstract class AbstractEventPublisher {
     @Autowired
     private CcdAuthenticatorFactory authenticatorFactory;
 
+    @Autowired
+    private ProcessingMetrics metrics;
+
+    @Autowired
+    private EnvelopeLedger ledger;
+
+    @Autowired
+    private CaseMetadataCache caseMetadataCache;
+
+    @Autowired
+    private CcdCircuitBreakers circuitBreakers;
+
     AbstractEventPublisher() {
     }
 
@@ -72,9 +97,35 @@ abstract class AbstractEventPublisher {
         logCaseCreationEntry(caseRef);
 
         CcdAuthenticator authenticator = authenticateJurisdiction(envelope.jurisdiction);
-        StartEventResponse eventResponse = startEvent(authenticator, envelope, caseTypeId);
-        CaseDataContent caseDataContent = buildCaseDataContent(eventResponse, envelope);
-        submitEvent(authenticator, envelope, caseDataContent, caseTypeId);
+
+        try {
+            StartEventResponse eventResponse = metrics
+                .timer(CCD_START_EVENT, getEventTypeId())
+                .record(() -> circuitBreakers.call(
+                    envelope.jurisdiction,
+                    caseTypeId,
+                    () -> startEvent(authenticator, envelope, caseTypeId)
+                ));
+
+            CaseDataContent caseDataContent = buildCaseDataContent(eventResponse, envelope);
+
+            String caseId = metrics
+                .timer(CCD_SUBMIT_EVENT, getEventTypeId())
+                .record(() -> circuitBreakers.call(
+                    envelope.jurisdiction,
+                    caseTypeId,
+                    () -> submitEvent(authenticator, envelope, caseDataContent, caseTypeId)
+                ));
+
+            ledger.recordCaseEvent(envelope.id, getLedgerStep(), caseId);
+        } catch (FeignException exception) {
+            if (exception.status() == HttpStatus.UNAUTHORIZED.value()) {
+                // token is no longer accepted by CCD - let the retry authenticate again
+                authenticatorFactory.removeFromIdamCache(envelope.jurisdiction, authenticator);
+            }
+
+            throw exception;
+        }
     }
 
     // region - execution steps
@@ -179,7 +230,11 @@ abstract class AbstractEventPublisher {
             .build();
     }
 
-    private void submitEvent(
+    /**
+     * Submits the event.
+     * @return ID of the case the event has been submitted for
+     */
+    private String submitEvent(
         CcdAuthenticator authenticator,
         Envelope envelope,
         CaseDataContent caseDataContent,
@@ -207,6 +262,8 @@ abstract class AbstractEventPublisher {
                 envelope.zipFileName,
                 response.getId()
             );
+
+            return String.valueOf(response.getId());
         } else {
             ccdApi.submitEventForCaseWorker(
                 authenticator.getUserToken(),
@@ -219,12 +276,17 @@ abstract class AbstractEventPublisher {
                 caseDataContent
             );
 
+            // case has changed - don't route further envelopes based on what has been cached before
+            caseMetadataCache.invalidate(jurisdiction, caseRef);
+
             log.info(
                 "Submitted CCD event of type {}. Envelope ID: {}, file name: {}",
                 this.getEventTypeId(),
                 envelope.id,
                 envelope.zipFileName
             );
+
+            return caseRef;
         }
     }
 
@@ -241,4 +303,10 @@ abstract class AbstractEventPublisher {
      * @return Event summary
      */
     abstract String getEventSummary();
+
+    /**
+     * Step recorded in {@link EnvelopeLedger} once the event has been submitted.
+     * @return Ledger step
+     */
+    abstract LedgerStep getLedgerStep();
 }
@@ -3,10 +3,11 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.SupplementaryEvidenceMapper;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsHelper.getDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.ScannedDocumentsHelper.getScannedDocuments;
 
 @Component
 class AttachDocsToSupplementaryEvidence extends AbstractEventPublisher {
@@ -20,7 +21,7 @@ class AttachDocsToSupplementaryEvidence extends AbstractEventPublisher {
     @Override
     CaseData buildCaseData(StartEventResponse eventResponse, Envelope envelope) {
         return mapper.map(
-            getDocuments(eventResponse.getCaseDetails()),
+            getScannedDocuments(eventResponse.getCaseDetails()),
             envelope.documents
         );
     }
@@ -34,4 +35,9 @@ class AttachDocsToSupplementaryEvidence extends AbstractEventPublisher {
     String getEventSummary() {
         return "Attach scanned documents";
     }
+
+    @Override
+    LedgerStep getLedgerStep() {
+        return LedgerStep.DOCUMENTS_ATTACHED;
+    }
 }
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers.ExceptionRecordMapper;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 
@@ -45,4 +46,9 @@ public class CreateExceptionRecord extends AbstractEventPublisher {
     String getEventSummary() {
         return "Create an exception record";
     }
+
+    @Override
+    LedgerStep getLedgerStep() {
+        return LedgerStep.EXCEPTION_RECORD_CREATED;
+    }
 }
@@ -4,4 +4,12 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envel
 
 public interface EventPublisher {
     void publish(Envelope envelope);
+
+    /**
+     * Name of the publisher. Used to tag processing metrics.
+     * @return Publisher name
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
 }
@@ -1,9 +1,12 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events;
 
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadata;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
-import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
 
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import javax.validation.constraints.NotNull;
 
@@ -34,22 +37,41 @@ public class EventPublisherContainer {
     @NotNull
     public EventPublisher getPublisher(
         Classification envelopeClassification,
-        Supplier<CaseDetails> caseRetrieval
+        Supplier<Optional<CaseMetadata>> caseRetrieval
     ) {
         switch (envelopeClassification) {
             case SUPPLEMENTARY_EVIDENCE:
-                CaseDetails caseDetails = caseRetrieval.get();
+                Optional<CaseMetadata> existingCase = caseRetrieval.get();
 
-                return caseDetails == null
-                    ? envelope -> exceptionRecordCreator.publish(envelope)
-                    : envelope -> attachDocsPublisher.publish(envelope, caseDetails.getCaseTypeId());
+                return existingCase.isPresent()
+                    ? named(
+                        attachDocsPublisher,
+                        envelope -> attachDocsPublisher.publish(envelope, existingCase.get().caseTypeId)
+                    )
+                    : named(exceptionRecordCreator, envelope -> exceptionRecordCreator.publish(envelope));
             case EXCEPTION:
             case NEW_APPLICATION:
-                return envelope -> exceptionRecordCreator.publish(envelope);
+                return named(exceptionRecordCreator, envelope -> exceptionRecordCreator.publish(envelope));
             default:
                 throw new PublisherResolutionException(
                     "Cannot resolve publisher - unrecognised envelope classification: " + envelopeClassification
                 );
         }
     }
+
+    private static EventPublisher named(AbstractEventPublisher publisher, Consumer<Envelope> publish) {
+        String name = publisher.getEventTypeId();
+
+        return new EventPublisher() {
+            @Override
+            public void publish(Envelope envelope) {
+                publish.accept(envelope);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
 }
@@ -0,0 +1,32 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam;
+
+import uk.gov.hmcts.reform.idam.client.models.UserDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * IDAM user token of a jurisdiction together with its user details and the moment it stops being valid.
+ */
+public class CachedIdamCredential {
+
+    public final String accessToken;
+
+    public final UserDetails userDetails;
+
+    public final Instant expiresAt;
+
+    public CachedIdamCredential(String accessToken, UserDetails userDetails, Instant expiresAt) {
+        this.accessToken = accessToken;
+        this.userDetails = userDetails;
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    boolean isDueForRefresh(Instant now, Duration refreshBeforeExpiry) {
+        return !now.isBefore(expiresAt.minus(refreshBeforeExpiry));
+    }
+}
@@ -0,0 +1,239 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
+import uk.gov.hmcts.reform.idam.client.IdamClient;
+import uk.gov.hmcts.reform.idam.client.models.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics.Stage.IDAM_AUTHENTICATION;
+
+/**
+ * Keeps one IDAM user token per jurisdiction.
+ *
+ * <p>Token is fetched (together with user details) the first time it is needed and reused until it expires.
+ * Once it gets close to expiry, a new one is fetched in the background while the current one is still served.
+ * Only one IDAM authentication per jurisdiction is in progress at any time - concurrent callers wait
+ * for the same result.</p>
+ */
+@Service
+@EnableConfigurationProperties(JurisdictionToUserMapping.class)
+public class IdamCachedClient {
+
+    private static final Logger log = LoggerFactory.getLogger(IdamCachedClient.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final IdamClient idamClient;
+    private final JurisdictionToUserMapping users;
+    private final Executor refreshExecutor;
+    private final ProcessingMetrics metrics;
+    private final Duration refreshBeforeExpiry;
+    private final Duration defaultTokenLifetime;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, CompletableFuture<CachedIdamCredential>> credentials =
+        new ConcurrentHashMap<>();
+    private final Set<String> refreshesInProgress = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public IdamCachedClient(
+        IdamClient idamClient,
+        JurisdictionToUserMapping users,
+        @Qualifier("idam-token-refresh") Executor refreshExecutor,
+        ProcessingMetrics metrics,
+        @Value("${idam.token-cache.refresh-before-expiry-seconds}") long refreshBeforeExpirySeconds,
+        @Value("${idam.token-cache.default-token-lifetime-seconds}") long defaultTokenLifetimeSeconds
+    ) {
+        this(
+            idamClient,
+            users,
+            refreshExecutor,
+            metrics,
+            Duration.ofSeconds(refreshBeforeExpirySeconds),
+            Duration.ofSeconds(defaultTokenLifetimeSeconds),
+            Clock.systemUTC()
+        );
+    }
+
+    IdamCachedClient(
+        IdamClient idamClient,
+        JurisdictionToUserMapping users,
+        Executor refreshExecutor,
+        ProcessingMetrics metrics,
+        Duration refreshBeforeExpiry,
+        Duration defaultTokenLifetime,
+        Clock clock
+    ) {
+        this.idamClient = idamClient;
+        this.users = users;
+        this.refreshExecutor = refreshExecutor;
+        this.metrics = metrics;
+        this.refreshBeforeExpiry = refreshBeforeExpiry;
+        this.defaultTokenLifetime = defaultTokenLifetime;
+        this.clock = clock;
+    }
+
+    public CachedIdamCredential getIdamCredentials(String jurisdiction) {
+        String key = jurisdiction.toLowerCase();
+        CompletableFuture<CachedIdamCredential> newCredential = new CompletableFuture<>();
+
+        CompletableFuture<CachedIdamCredential> credentialFuture = credentials.compute(
+            key,
+            (k, existing) -> isUsable(existing) ? existing : newCredential
+        );
+
+        if (credentialFuture == newCredential) {
+            load(key, newCredential);
+        }
+
+        CachedIdamCredential credential = await(credentialFuture);
+
+        if (credential.isDueForRefresh(clock.instant(), refreshBeforeExpiry)) {
+            refreshInBackground(key, credentialFuture);
+        }
+
+        return credential;
+    }
+
+    /**
+     * Forgets the token of given jurisdiction, e.g. when it has been rejected by CCD.
+     * Next request for credentials will authenticate with IDAM again.
+     *
+     * <p>Nothing is removed when the cached token is no longer the rejected one, e.g. when it has been
+     * refreshed by another thread in the meantime.</p>
+     */
+    public void removeAccessTokenFromCache(String jurisdiction, String accessToken) {
+        String key = jurisdiction.toLowerCase();
+        CompletableFuture<CachedIdamCredential> cached = credentials.get(key);
+
+        if (holdsToken(cached, accessToken) && credentials.remove(key, cached)) {
+            log.info("Removed IDAM token of {} jurisdiction from cache", jurisdiction);
+        }
+    }
+
+    private static boolean holdsToken(CompletableFuture<CachedIdamCredential> credentialFuture, String accessToken) {
+        return credentialFuture != null
+            && credentialFuture.isDone()
+            && !credentialFuture.isCompletedExceptionally()
+            && credentialFuture.join().accessToken.equals(accessToken);
+    }
+
+    private boolean isUsable(CompletableFuture<CachedIdamCredential> credentialFuture) {
+        if (credentialFuture == null) {
+            return false;
+        } else if (!credentialFuture.isDone()) {
+            // somebody else is authenticating right now - wait for their result
+            return true;
+        } else {
+            return !credentialFuture.isCompletedExceptionally()
+                && !credentialFuture.join().isExpired(clock.instant());
+        }
+    }
+
+    private void load(String jurisdiction, CompletableFuture<CachedIdamCredential> credentialFuture) {
+        try {
+            credentialFuture.complete(authenticate(jurisdiction));
+        } catch (RuntimeException exception) {
+            // failures are not cached - next call will try again
+            credentials.remove(jurisdiction, credentialFuture);
+            credentialFuture.completeExceptionally(exception);
+        }
+    }
+
+    private void refreshInBackground(
+        String jurisdiction,
+        CompletableFuture<CachedIdamCredential> currentCredential
+    ) {
+        if (!refreshesInProgress.add(jurisdiction)) {
+            return;
+        }
+
+        log.info("Refreshing IDAM token of {} jurisdiction", jurisdiction);
+
+        try {
+            CompletableFuture
+                .supplyAsync(() -> authenticate(jurisdiction), refreshExecutor)
+                .whenComplete((refreshed, exception) -> {
+                    if (exception == null) {
+                        // skipped when the token has been removed or replaced in the meantime
+                        credentials.replace(
+                            jurisdiction,
+                            currentCredential,
+                            CompletableFuture.completedFuture(refreshed)
+                        );
+                    } else {
+                        log.warn("Failed to refresh IDAM token of {} jurisdiction", jurisdiction, exception);
+                    }
+
+                    refreshesInProgress.remove(jurisdiction);
+                });
+        } catch (RejectedExecutionException exception) {
+            // current token is still valid - next call for it tries again
+            log.warn("Rejected refresh of IDAM token of {} jurisdiction", jurisdiction);
+            refreshesInProgress.remove(jurisdiction);
+        }
+    }
+
+    private CachedIdamCredential authenticate(String jurisdiction) {
+        Credential user = users.getUser(jurisdiction);
+
+        log.debug("Authenticating user: {}", user.getUsername());
+
+        return metrics.timer(IDAM_AUTHENTICATION).record(() -> {
+            String accessToken = idamClient.authenticateUser(user.getUsername(), user.getPassword());
+            UserDetails userDetails = idamClient.getUserDetails(accessToken);
+
+            return new CachedIdamCredential(accessToken, userDetails, getExpiry(accessToken));
+        });
+    }
+
+    @SuppressWarnings("squid:S2221") // any failure means the token is not a JWT we can read
+    private Instant getExpiry(String accessToken) {
+        try {
+            String jwt = accessToken.startsWith(BEARER_PREFIX)
+                ? accessToken.substring(BEARER_PREFIX.length())
+                : accessToken;
+
+            byte[] payload = Base64.getUrlDecoder().decode(jwt.split("\\.")[1]);
+            JsonNode claims = JsonSerialization.treeReader().readValue(payload);
+
+            return Instant.ofEpochSecond(claims.get("exp").asLong());
+        } catch (Exception exception) {
+            log.warn("Could not read IDAM token expiry. Assuming it is valid for {}", defaultTokenLifetime);
+
+            return clock.instant().plus(defaultTokenLifetime);
+        }
+    }
+
+    private static CachedIdamCredential await(CompletableFuture<CachedIdamCredential> credentialFuture) {
+        try {
+            return credentialFuture.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+
+            throw exception;
+        }
+    }
+}
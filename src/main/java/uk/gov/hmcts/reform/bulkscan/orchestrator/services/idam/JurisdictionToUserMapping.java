@@ -34,10 +34,14 @@ public class JurisdictionToUserMapping {
     }
 
     public Credential getUser(String jurisdiction) {
-        return users.computeIfAbsent(jurisdiction.toLowerCase(), this::throwNotFound);
-    }
+        // plain lookup - `computeIfAbsent` may modify the map and it is read by many queue reader threads
+        String key = jurisdiction.toLowerCase();
+        Credential credential = users.get(key);
+
+        if (credential == null) {
+            throw new NoUserConfiguredException(key);
+        }
 
-    private Credential throwNotFound(String jurisdiction) {
-        throw new NoUserConfiguredException(jurisdiction);
+        return credential;
     }
 }
@@ -0,0 +1,19 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import java.time.Instant;
+
+public class CompletedStep {
+
+    public final LedgerStep step;
+
+    // CCD case the step was performed on, null for steps not related to a case
+    public final String caseId;
+
+    public final Instant completedAt;
+
+    public CompletedStep(LedgerStep step, String caseId, Instant completedAt) {
+        this.step = step;
+        this.caseId = caseId;
+        this.completedAt = completedAt;
+    }
+}
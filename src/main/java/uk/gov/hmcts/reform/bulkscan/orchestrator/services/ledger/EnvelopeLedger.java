@@ -0,0 +1,91 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep.DOCUMENTS_ATTACHED;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep.EXCEPTION_RECORD_CREATED;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep.NOTIFICATION_SENT;
+
+/**
+ * Records which processing steps have been completed for each envelope.
+ *
+ * <p>When a message is delivered again (e.g. after its lock expired or notification failed),
+ * processing resumes after the last completed step, so CCD changes are not repeated.</p>
+ *
+ * <p>Failing to record a step fails the processing with {@link LedgerException}, as the next delivery
+ * wouldn't know the step has been completed.</p>
+ *
+ * <p>Steps are known to other instances and after restart only if the store {@link #isShared() is shared}.</p>
+ */
+@Service
+public class EnvelopeLedger {
+
+    private final LedgerStore store;
+    private final Duration retention;
+    private final Clock clock;
+
+    public EnvelopeLedger(
+        LedgerStore store,
+        @Value("${envelope-ledger.retention-hours}") long retentionHours
+    ) {
+        this(store, Duration.ofHours(retentionHours), Clock.systemUTC());
+    }
+
+    EnvelopeLedger(LedgerStore store, Duration retention, Clock clock) {
+        this.store = store;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Finds the CCD step (exception record creation or attaching documents) completed for the envelope.
+     */
+    public Optional<CompletedStep> findCaseEvent(String envelopeId) {
+        return store
+            .findSteps(envelopeId)
+            .stream()
+            .filter(completed -> completed.step == EXCEPTION_RECORD_CREATED || completed.step == DOCUMENTS_ATTACHED)
+            .findFirst();
+    }
+
+    public boolean isNotificationSent(String envelopeId) {
+        return store
+            .findSteps(envelopeId)
+            .stream()
+            .anyMatch(completed -> completed.step == NOTIFICATION_SENT);
+    }
+
+    public void recordCaseEvent(String envelopeId, LedgerStep step, String caseId) {
+        record(envelopeId, new CompletedStep(step, caseId, clock.instant()));
+    }
+
+    public void recordNotificationSent(String envelopeId) {
+        record(envelopeId, new CompletedStep(NOTIFICATION_SENT, null, clock.instant()));
+    }
+
+    public boolean isShared() {
+        return store.isShared();
+    }
+
+    @Scheduled(fixedDelayString = "${envelope-ledger.cleanup-interval-millis}")
+    public void removeExpiredEntries() {
+        store.deleteCompletedBefore(clock.instant().minus(retention));
+    }
+
+    private void record(String envelopeId, CompletedStep completed) {
+        try {
+            store.save(envelopeId, completed);
+        } catch (RuntimeException exception) {
+            throw new LedgerException(
+                "Failed to record step " + completed.step + " of envelope " + envelopeId + " in the ledger",
+                exception
+            );
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps ledger entries in memory of the instance. Entries are lost on restart.
+ */
+@Component
+@ConditionalOnProperty(name = "envelope-ledger.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLedgerStore implements LedgerStore {
+
+    // lists are never modified - every change replaces the list of the envelope
+    private final Map<String, List<CompletedStep>> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public List<CompletedStep> findSteps(String envelopeId) {
+        return entries.getOrDefault(envelopeId, emptyList());
+    }
+
+    @Override
+    public void save(String envelopeId, CompletedStep step) {
+        entries.compute(envelopeId, (id, steps) -> {
+            if (steps == null) {
+                return singletonList(step);
+            } else if (steps.stream().anyMatch(saved -> saved.step == step.step)) {
+                return steps;
+            } else {
+                List<CompletedStep> updated = new ArrayList<>(steps);
+                updated.add(step);
+                return unmodifiableList(updated);
+            }
+        });
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    @Override
+    public void deleteCompletedBefore(Instant time) {
+        entries.keySet().forEach(envelopeId ->
+            entries.computeIfPresent(envelopeId, (id, steps) -> {
+                List<CompletedStep> remaining = steps
+                    .stream()
+                    .filter(step -> !step.completedAt.isBefore(time))
+                    .collect(toList());
+
+                return remaining.isEmpty() ? null : unmodifiableList(remaining);
+            })
+        );
+    }
+}
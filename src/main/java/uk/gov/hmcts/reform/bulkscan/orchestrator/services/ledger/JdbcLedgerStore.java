@@ -0,0 +1,72 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps ledger entries in a database, so they survive restarts and can be shared between instances.
+ * See {@code spring.datasource} settings. The table is created by a Flyway migration.
+ *
+ * <p>Whether the database is actually shared can't be told from its URL, so it is configured
+ * with {@code envelope-ledger.jdbc.shared}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "envelope-ledger.store", havingValue = "jdbc")
+public class JdbcLedgerStore implements LedgerStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean shared;
+
+    public JdbcLedgerStore(
+        JdbcTemplate jdbcTemplate,
+        @Value("${envelope-ledger.jdbc.shared}") boolean shared
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shared = shared;
+    }
+
+    @Override
+    public boolean isShared() {
+        return shared;
+    }
+
+    @Override
+    public List<CompletedStep> findSteps(String envelopeId) {
+        return jdbcTemplate.query(
+            "SELECT step, case_id, completed_at FROM envelope_ledger WHERE envelope_id = ?",
+            (resultSet, rowNumber) -> new CompletedStep(
+                LedgerStep.valueOf(resultSet.getString("step")),
+                resultSet.getString("case_id"),
+                resultSet.getTimestamp("completed_at").toInstant()
+            ),
+            envelopeId
+        );
+    }
+
+    @Override
+    public void save(String envelopeId, CompletedStep step) {
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO envelope_ledger (envelope_id, step, case_id, completed_at) VALUES (?, ?, ?, ?)",
+                envelopeId,
+                step.step.name(),
+                step.caseId,
+                Timestamp.from(step.completedAt)
+            );
+        } catch (DuplicateKeyException exception) {
+            // step has already been recorded
+        }
+    }
+
+    @Override
+    public void deleteCompletedBefore(Instant time) {
+        jdbcTemplate.update("DELETE FROM envelope_ledger WHERE completed_at < ?", Timestamp.from(time));
+    }
+}
@@ -0,0 +1,11 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+/**
+ * Thrown when a completed step can't be recorded in the {@link EnvelopeLedger}.
+ */
+public class LedgerException extends RuntimeException {
+
+    public LedgerException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
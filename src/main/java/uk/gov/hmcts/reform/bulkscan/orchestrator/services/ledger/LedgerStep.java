@@ -0,0 +1,10 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+/**
+ * Steps of envelope processing recorded in {@link EnvelopeLedger}.
+ */
+public enum LedgerStep {
+    EXCEPTION_RECORD_CREATED,
+    DOCUMENTS_ATTACHED,
+    NOTIFICATION_SENT
+}
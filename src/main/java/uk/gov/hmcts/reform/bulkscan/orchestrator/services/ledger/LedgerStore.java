@@ -0,0 +1,27 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Storage of {@link EnvelopeLedger} entries.
+ */
+public interface LedgerStore {
+
+    List<CompletedStep> findSteps(String envelopeId);
+
+    /**
+     * Saves the step. Saving a step that has already been saved for the envelope has no effect.
+     */
+    void save(String envelopeId, CompletedStep step);
+
+    /**
+     * Removes steps completed before given time.
+     */
+    void deleteCompletedBefore(Instant time);
+
+    /**
+     * Tells whether entries survive restarts and are seen by all instances of the service.
+     */
+    boolean isShared();
+}
@@ -0,0 +1,94 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.util.Objects;
+
+/**
+ * Timers of the envelope processing stages and counters of processing results.
+ *
+ * <p>Stage timers publish percentile histograms, so latency percentiles can be aggregated across instances.</p>
+ *
+ * <p>Results are tagged only with jurisdictions configured in {@link JurisdictionToUserMapping}, others are counted
+ * as unknown - the same way their envelopes share the default processing lane. Otherwise every jurisdiction
+ * coming in a message would add its own counters.</p>
+ */
+@Component
+public class ProcessingMetrics {
+
+    public static final String STAGE_TIMER = "envelope.processing.stage";
+    public static final String RESULT_COUNTER = "envelope.processing.result";
+
+    public static final String UNKNOWN = "unknown";
+
+    public enum Stage {
+        PARSE("parse"),
+        CASE_RETRIEVAL("case-retrieval"),
+        IDAM_AUTHENTICATION("idam-authentication"),
+        CCD_START_EVENT("ccd-start-event"),
+        CCD_SUBMIT_EVENT("ccd-submit-event"),
+        NOTIFICATION("notification");
+
+        private final String tagValue;
+
+        Stage(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final JurisdictionToUserMapping users;
+
+    public ProcessingMetrics(MeterRegistry meterRegistry, JurisdictionToUserMapping users) {
+        this.meterRegistry = meterRegistry;
+        this.users = users;
+    }
+
+    public Timer timer(Stage stage) {
+        return timer(stage, UNKNOWN);
+    }
+
+    public Timer timer(Stage stage, String publisher) {
+        return Timer
+            .builder(STAGE_TIMER)
+            .description("Time taken by a stage of envelope processing")
+            .tag("stage", stage.tagValue)
+            .tag("publisher", tagValue(publisher))
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Counts the outcome of processing a message.
+     *
+     * @param envelope  parsed envelope or null when the message could not be parsed
+     * @param publisher name of the publisher handling the envelope or null when it has not been resolved
+     */
+    public void countResult(MessageProcessingResultType resultType, Envelope envelope, String publisher) {
+        Counter
+            .builder(RESULT_COUNTER)
+            .description("Number of processed messages by processing result")
+            .tag("result", resultType.name())
+            .tag("jurisdiction", envelope == null ? UNKNOWN : jurisdictionTagValue(envelope.jurisdiction))
+            .tag("classification", envelope == null ? UNKNOWN : Objects.toString(envelope.classification, UNKNOWN))
+            .tag("publisher", tagValue(publisher))
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private String jurisdictionTagValue(String jurisdiction) {
+        String value = tagValue(jurisdiction);
+
+        return users.getUsers().containsKey(value) ? value : UNKNOWN;
+    }
+
+    private static String tagValue(String value) {
+        return value == null ? UNKNOWN : value.toLowerCase();
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limit of envelopes processed at a time, adjusted to how CCD copes with the load.
+ *
+ * <p>The limit follows additive increase / multiplicative decrease (AIMD): every CCD publishing
+ * that completes within the latency threshold raises the limit by one, as long as the current limit
+ * is being used. A failed or slow publishing cuts the limit by the backoff ratio. The limit stays
+ * between the configured minimum and maximum - the latter being the number of messages
+ * the queue client hands over at a time, or the number of envelopes a jurisdiction lane lets in,
+ * whichever is lower. Above that, lanes would reject envelopes instead of CCD slowing down.</p>
+ */
+@Component
+public class AdaptiveConcurrencyLimit {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimit.class);
+
+    public static final String LIMIT_GAUGE = "envelope.concurrency.limit";
+    public static final String IN_FLIGHT_GAUGE = "envelope.concurrency.in_flight";
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    @Autowired
+    public AdaptiveConcurrencyLimit(
+        MeterRegistry meterRegistry,
+        @Value("${envelope-processing.concurrency-limit.min-limit}") int minLimit,
+        @Value("${envelope-processing.concurrency-limit.initial-limit}") int initialLimit,
+        @Value("${azure.servicebus.envelopes.max-concurrent-calls}") int maxConcurrentCalls,
+        @Value("${envelope-processing.lanes.max-in-flight}") int laneCapacity,
+        @Value("${envelope-processing.concurrency-limit.latency-threshold-millis}") long latencyThresholdMillis,
+        @Value("${envelope-processing.concurrency-limit.backoff-ratio}") double backoffRatio
+    ) {
+        this(
+            minLimit,
+            initialLimit,
+            Math.min(maxConcurrentCalls, laneCapacity),
+            Duration.ofMillis(latencyThresholdMillis),
+            backoffRatio
+        );
+
+        Gauge
+            .builder(LIMIT_GAUGE, this, AdaptiveConcurrencyLimit::getLimit)
+            .description("Number of envelopes allowed to be processed at a time")
+            .register(meterRegistry);
+
+        Gauge
+            .builder(IN_FLIGHT_GAUGE, this, AdaptiveConcurrencyLimit::getInFlight)
+            .description("Number of envelopes being processed")
+            .register(meterRegistry);
+    }
+
+    AdaptiveConcurrencyLimit(
+        int minLimit,
+        int initialLimit,
+        int maxLimit,
+        Duration latencyThreshold,
+        double backoffRatio
+    ) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), this.maxLimit);
+    }
+
+    /**
+     * Takes a processing slot, if there's one below the limit.
+     *
+     * @return true if the slot has been taken and must be released with {@link #release()}
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight < getLimit()) {
+            inFlight++;
+            return true;
+        }
+
+        return false;
+    }
+
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * Adjusts the limit to the outcome of publishing an envelope to CCD.
+     *
+     * @param latencyNanos time the publishing took
+     * @param failed whether CCD failed to handle the publishing, e.g. timed out or responded with a server error
+     */
+    public synchronized void onSample(long latencyNanos, boolean failed) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            int previous = getLimit();
+            limit = Math.max(minLimit, limit * backoffRatio);
+
+            if (getLimit() < previous) {
+                log.info(
+                    "Lowered envelope concurrency limit to {}. Failed: {}, latency: {} ms",
+                    getLimit(),
+                    failed,
+                    latencyNanos / 1_000_000
+                );
+            }
+        } else if (inFlight * 2 >= getLimit()) {
+            // only grow while the limit is actually being used
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
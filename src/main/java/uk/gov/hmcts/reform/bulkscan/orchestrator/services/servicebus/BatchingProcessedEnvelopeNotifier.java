@@ -0,0 +1,201 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.Message;
+import com.microsoft.azure.servicebus.QueueClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.ProcessedEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import static java.util.stream.Collectors.toList;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization.processedEnvelopeWriter;
+
+/**
+ * Notifies about successfully processed envelopes via queue, sending the notifications in batches.
+ *
+ * <p>Notifications are buffered and sent with a single {@code sendBatch} call once the batch is full
+ * or the oldest notification has waited for the configured delay. The future returned for
+ * a notification completes only after its batch has been accepted by Service Bus - when sending
+ * fails, all notifications of the batch fail, as a single send would.</p>
+ */
+@Service
+@Profile("!nosb") // do not register for the nosb (test) profile
+@ConditionalOnProperty(name = "azure.servicebus.processed-envelopes.batching.enabled", havingValue = "true")
+public class BatchingProcessedEnvelopeNotifier implements IProcessedEnvelopeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingProcessedEnvelopeNotifier.class);
+
+    private static final String ERROR_MESSAGE =
+        "An error occurred when trying to send notification about successfully processed envelope";
+
+    private final QueueClient queueClient;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final ScheduledExecutorService flushScheduler;
+
+    private final Object lock = new Object();
+    private List<PendingNotification> pending = new ArrayList<>();
+
+    @Autowired
+    public BatchingProcessedEnvelopeNotifier(
+        @Qualifier("processed-envelopes") QueueClient queueClient,
+        @Value("${azure.servicebus.processed-envelopes.batching.max-batch-size}") int maxBatchSize,
+        @Value("${azure.servicebus.processed-envelopes.batching.max-delay-millis}") long maxDelayMillis
+    ) {
+        this(
+            queueClient,
+            maxBatchSize,
+            maxDelayMillis,
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("processed-envelopes-flush-%d").build()
+            )
+        );
+    }
+
+    BatchingProcessedEnvelopeNotifier(
+        QueueClient queueClient,
+        int maxBatchSize,
+        long maxDelayMillis,
+        ScheduledExecutorService flushScheduler
+    ) {
+        this.queueClient = queueClient;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.flushScheduler = flushScheduler;
+    }
+
+    @Override
+    public void notify(String envelopeId) {
+        try {
+            notifyAsync(envelopeId).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof NotificationSendingException) {
+                throw (NotificationSendingException) exception.getCause();
+            }
+
+            throw new NotificationSendingException(ERROR_MESSAGE, exception.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> notifyAsync(String envelopeId) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        IMessage message;
+
+        try {
+            message = createMessage(envelopeId);
+        } catch (JsonProcessingException exception) {
+            result.completeExceptionally(new NotificationSendingException(ERROR_MESSAGE, exception));
+            return result;
+        }
+
+        int batchSize;
+
+        synchronized (lock) {
+            pending.add(new PendingNotification(envelopeId, message, result));
+            batchSize = pending.size();
+        }
+
+        if (batchSize >= maxBatchSize) {
+            flushScheduler.execute(this::flush);
+        } else if (batchSize == 1) {
+            // first notification of a new batch - make sure it doesn't wait longer than allowed
+            flushScheduler.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.execute(this::flush);
+        flushScheduler.shutdown();
+    }
+
+    private void flush() {
+        List<PendingNotification> notifications;
+
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            notifications = pending;
+            pending = new ArrayList<>();
+        }
+
+        for (int from = 0; from < notifications.size(); from += maxBatchSize) {
+            send(notifications.subList(from, Math.min(from + maxBatchSize, notifications.size())));
+        }
+    }
+
+    private void send(List<PendingNotification> batch) {
+        List<IMessage> messages = batch.stream().map(notification -> notification.message).collect(toList());
+
+        CompletableFuture<Void> sending;
+
+        try {
+            sending = queueClient.sendBatchAsync(messages);
+        } catch (RuntimeException exception) {
+            sending = new CompletableFuture<>();
+            sending.completeExceptionally(exception);
+        }
+
+        sending.whenComplete((sent, exception) -> {
+            if (exception == null) {
+                log.info("Sent {} messages to processed envelopes queue", batch.size());
+                batch.forEach(notification -> notification.result.complete(null));
+            } else {
+                log.error(
+                    "Failed to send {} messages to processed envelopes queue. Envelope IDs: {}",
+                    batch.size(),
+                    batch.stream().map(notification -> notification.envelopeId).collect(toList()),
+                    exception
+                );
+
+                NotificationSendingException failure = new NotificationSendingException(
+                    ERROR_MESSAGE,
+                    exception instanceof CompletionException ? exception.getCause() : exception
+                );
+                batch.forEach(notification -> notification.result.completeExceptionally(failure));
+            }
+        });
+    }
+
+    private IMessage createMessage(String envelopeId) throws JsonProcessingException {
+        String messageBody = processedEnvelopeWriter().writeValueAsString(new ProcessedEnvelope(envelopeId));
+
+        return new Message(envelopeId, messageBody, APPLICATION_JSON.toString());
+    }
+
+    private static class PendingNotification {
+
+        final String envelopeId;
+        final IMessage message;
+        final CompletableFuture<Void> result;
+
+        PendingNotification(String envelopeId, IMessage message, CompletableFuture<Void> result) {
+            this.envelopeId = envelopeId;
+            this.message = message;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.ExceptionPhase;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Passes messages to the handler only while there's room below the {@link AdaptiveConcurrencyLimit}.
+ *
+ * <p>Messages received above the limit wait, in the order they came in, until processing of another
+ * message finishes. Their locks are renewed by {@link MessageLockRenewer} in the meantime.
+ * Reader threads are never blocked.</p>
+ */
+public class ConcurrencyLimitingMessageHandler implements IMessageHandler {
+
+    private final IMessageHandler handler;
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final Queue<PendingMessage> pending = new ConcurrentLinkedQueue<>();
+
+    public ConcurrencyLimitingMessageHandler(IMessageHandler handler, AdaptiveConcurrencyLimit limit) {
+        this.handler = handler;
+        this.limit = limit;
+    }
+
+    @Override
+    public CompletableFuture<Void> onMessageAsync(IMessage message) {
+        PendingMessage pendingMessage = new PendingMessage(message);
+
+        pending.add(pendingMessage);
+        startPending();
+
+        return pendingMessage.processed;
+    }
+
+    @Override
+    public void notifyException(Throwable exception, ExceptionPhase phase) {
+        handler.notifyException(exception, phase);
+    }
+
+    /**
+     * Starts waiting messages for as long as the limit allows.
+     *
+     * <p>The queue is checked again after giving back an unused slot. A message added in the meantime
+     * may have found no free slot, and its thread left it for whoever held that slot to start.</p>
+     */
+    private void startPending() {
+        while (!pending.isEmpty() && limit.tryAcquire()) {
+            PendingMessage next = pending.poll();
+
+            if (next == null) {
+                limit.release();
+            } else {
+                start(next);
+            }
+        }
+    }
+
+    private void start(PendingMessage pendingMessage) {
+        CompletableFuture<Void> processing;
+
+        try {
+            processing = handler.onMessageAsync(pendingMessage.message);
+        } catch (RuntimeException exception) {
+            processing = new CompletableFuture<>();
+            processing.completeExceptionally(exception);
+        }
+
+        processing.whenComplete((result, exception) -> {
+            limit.release();
+
+            if (exception == null) {
+                pendingMessage.processed.complete(result);
+            } else {
+                pendingMessage.processed.completeExceptionally(exception);
+            }
+
+            startPending();
+        });
+    }
+
+    private static class PendingMessage {
+
+        final IMessage message;
+        final CompletableFuture<Void> processed = new CompletableFuture<>();
+
+        PendingMessage(IMessage message) {
+            this.message = message;
+        }
+    }
+}
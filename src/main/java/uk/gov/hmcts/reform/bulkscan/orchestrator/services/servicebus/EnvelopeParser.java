@@ -1,26 +1,55 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions.InvalidMessageException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrData;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
-public class EnvelopeParser {
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization.documentReader;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization.instantReader;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization.jsonFactory;
 
-    private static final ObjectMapper objectMapper;
+/**
+ * Reads envelopes from queue messages.
+ *
+ * <p>Message is read in two passes over the same bytes. The first one only reads header fields
+ * (id, case_ref, jurisdiction, classification) and counts the documents, skipping their content.
+ * OCR data is validated and kept as a slice of the message, to be read only if the envelope needs it.
+ * Invalid messages are rejected at this point, before anything else gets bound.
+ * The second pass binds the remaining fields, reading documents into a list sized by the first pass.</p>
+ *
+ * <p>Apart from id, jurisdiction and classification, which the envelope can't be processed without,
+ * required fields only have to be present in the message and may be null.</p>
+ */
+public class EnvelopeParser {
 
-    static {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
-    }
+    private static final String ID = "id";
+    private static final String CASE_REF = "case_ref";
+    private static final String PO_BOX = "po_box";
+    private static final String JURISDICTION = "jurisdiction";
+    private static final String ZIP_FILE_NAME = "zip_file_name";
+    private static final String DELIVERY_DATE = "delivery_date";
+    private static final String OPENING_DATE = "opening_date";
+    private static final String CLASSIFICATION = "classification";
+    private static final String DOCUMENTS = "documents";
+    private static final String OCR_DATA = "ocr_data";
 
     public static Envelope parse(byte[] bytes) {
         try {
-            return objectMapper.readValue(bytes, Envelope.class);
+            Header header = readHeader(bytes);
+
+            return readEnvelope(bytes, header);
         } catch (IOException exc) {
             throw new InvalidMessageException(exc);
         }
@@ -30,6 +59,235 @@ public class EnvelopeParser {
         return parse(json.getBytes());
     }
 
+    private static Header readHeader(byte[] bytes) throws IOException {
+        Header header = new Header();
+
+        try (JsonParser parser = jsonFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidMessageException("Envelope must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case ID:
+                        header.id = readText(parser, field);
+                        break;
+                    case CASE_REF:
+                        header.caseRef = readText(parser, field);
+                        header.caseRefPresent = true;
+                        break;
+                    case JURISDICTION:
+                        header.jurisdiction = readText(parser, field);
+                        break;
+                    case CLASSIFICATION:
+                        header.classification = toClassification(readText(parser, field));
+                        break;
+                    case DOCUMENTS:
+                        header.documentCount = countElements(parser, field);
+                        break;
+                    case OCR_DATA:
+                        header.ocrData = readOcrData(parser, bytes);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        required(ID, header.id);
+        // exception records and new applications come with null case_ref - the field only has to be present
+        if (!header.caseRefPresent) {
+            throw new InvalidMessageException("Missing required field: " + CASE_REF);
+        }
+
+        required(JURISDICTION, header.jurisdiction);
+        required(CLASSIFICATION, header.classification);
+
+        return header;
+    }
+
+    private static Envelope readEnvelope(byte[] bytes, Header header) throws IOException {
+        String poBox = null;
+        String zipFileName = null;
+        Instant deliveryDate = null;
+        Instant openingDate = null;
+        List<Document> documents = null;
+        // these fields only have to be present - explicit nulls are accepted
+        Set<String> presentFields = new HashSet<>();
+
+        try (JsonParser parser = jsonFactory().createParser(bytes)) {
+            parser.nextToken(); // root object - already checked when reading the header
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                presentFields.add(field);
+
+                switch (field) {
+                    case PO_BOX:
+                        poBox = readText(parser, field);
+                        break;
+                    case ZIP_FILE_NAME:
+                        zipFileName = readText(parser, field);
+                        break;
+                    case DELIVERY_DATE:
+                        deliveryDate = instantReader().readValue(parser);
+                        break;
+                    case OPENING_DATE:
+                        openingDate = instantReader().readValue(parser);
+                        break;
+                    case DOCUMENTS:
+                        documents = readList(parser, documentReader(), header.documentCount);
+                        break;
+                    default:
+                        // header fields and OCR data have been read already
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        requirePresent(presentFields, PO_BOX, ZIP_FILE_NAME, DELIVERY_DATE, OPENING_DATE, DOCUMENTS);
+
+        return new Envelope(
+            header.id,
+            header.caseRef,
+            poBox,
+            header.jurisdiction,
+            zipFileName,
+            deliveryDate,
+            openingDate,
+            header.classification,
+            documents,
+            header.ocrData
+        );
+    }
+
+    private static String readText(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            throw new InvalidMessageException("Field " + field + " must not be an object or array");
+        }
+
+        return parser.getValueAsString();
+    }
+
+    private static Classification toClassification(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (Classification classification : Classification.values()) {
+            if (classification.name().equalsIgnoreCase(value)) {
+                return classification;
+            }
+        }
+
+        throw new InvalidMessageException("Invalid classification: " + value);
+    }
+
+    /**
+     * Counts elements of the array the parser points at, leaving the parser at the end of the array.
+     */
+    private static int countElements(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidMessageException("Field " + field + " must be an array");
+        }
+
+        int count = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Validates OCR fields without reading their values and returns the slice of the message they occupy.
+     */
+    private static OcrData readOcrData(JsonParser parser, byte[] bytes) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidMessageException("Field " + OCR_DATA + " must be an array");
+        }
+
+        int offset = (int) parser.getTokenLocation().getByteOffset();
+        int count = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new InvalidMessageException("Field " + OCR_DATA + " must contain objects only");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+
+                if (parser.nextToken().isStructStart()
+                    && (OcrData.NAME_FIELD.equals(field) || OcrData.VALUE_FIELD.equals(field))) {
+                    throw new InvalidMessageException("Field " + field + " must not be an object or array");
+                }
+
+                parser.skipChildren();
+            }
+
+            count++;
+        }
+
+        int length = (int) parser.getCurrentLocation().getByteOffset() - offset;
+
+        return new OcrData(bytes, offset, length, count);
+    }
+
+    private static <T> List<T> readList(JsonParser parser, ObjectReader reader, int size) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        List<T> list = new ArrayList<>(size);
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(reader.readValue(parser));
+        }
+
+        return list;
+    }
+
+    private static <T> T required(String field, T value) {
+        if (value == null) {
+            throw new InvalidMessageException("Missing required field: " + field);
+        }
+
+        return value;
+    }
+
+    private static void requirePresent(Set<String> presentFields, String... fields) {
+        for (String field : fields) {
+            if (!presentFields.contains(field)) {
+                throw new InvalidMessageException("Missing required field: " + field);
+            }
+        }
+    }
+
+    private static class Header {
+        String id;
+        String caseRef;
+        boolean caseRefPresent;
+        String jurisdiction;
+        Classification classification;
+        int documentCount;
+        OcrData ocrData;
+    }
+
     private EnvelopeParser() {
         // utility class
     }
@@ -1,7 +1,10 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
+import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -12,6 +15,48 @@ public interface IMessageOperations {
 
     void complete(UUID lockToken) throws InterruptedException, ServiceBusException;
 
+    /**
+     * Completes all given messages, e.g. the successfully processed part of a received batch.
+     */
+    default void completeAll(Collection<UUID> lockTokens) throws InterruptedException, ServiceBusException {
+        for (UUID lockToken : lockTokens) {
+            complete(lockToken);
+        }
+    }
+
+    /**
+     * Releases the lock of the message, so that it can be delivered again straight away.
+     */
+    void abandon(UUID lockToken) throws InterruptedException, ServiceBusException;
+
+    /**
+     * Sends a copy of the message, to be delivered at the given time.
+     * The original message still has to be completed.
+     *
+     * @param redeliveryCount number of redeliveries including this one, stored in the copy
+     * @return sequence number of the copy, to cancel it with {@link #cancelScheduledRedelivery(long)}
+     */
+    long scheduleRedelivery(
+        IMessage message,
+        int redeliveryCount,
+        Instant deliveryTime
+    ) throws InterruptedException, ServiceBusException;
+
+    /**
+     * Cancels the copy sent by {@link #scheduleRedelivery}, e.g. when the original couldn't be completed.
+     */
+    void cancelScheduledRedelivery(long sequenceNumber) throws InterruptedException, ServiceBusException;
+
+    /**
+     * Extends the lock of a message that is still being processed, through the client that holds the lock.
+     *
+     * <p>Queue client renews locks of the messages it hands over to its handler itself,
+     * so for those this only reads the time it has extended the lock to.</p>
+     *
+     * @return time until which the message is locked now
+     */
+    Instant renewLock(IMessage message) throws InterruptedException, ServiceBusException;
+
     void deadLetter(
         UUID lockToken,
         String reason,
@@ -1,9 +1,21 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Sends notifications about processed messages.
  */
 public interface IProcessedEnvelopeNotifier {
 
     void notify(String envelopeId);
+
+    /**
+     * Sends the notification without waiting for it, where the implementation supports it.
+     * Returned future completes once the notification has been sent, or exceptionally
+     * with {@link NotificationSendingException} when sending failed.
+     */
+    default CompletableFuture<Void> notifyAsync(String envelopeId) {
+        notify(envelopeId);
+        return CompletableFuture.completedFuture(null);
+    }
 }
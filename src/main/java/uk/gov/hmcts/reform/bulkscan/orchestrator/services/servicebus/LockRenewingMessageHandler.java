@@ -0,0 +1,41 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.ExceptionPhase;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Renews the lock of each message from the moment it's received until the handler is done with it,
+ * including time the message waits for a processing slot.
+ */
+public class LockRenewingMessageHandler implements IMessageHandler {
+
+    private final IMessageHandler handler;
+    private final MessageLockRenewer lockRenewer;
+
+    public LockRenewingMessageHandler(IMessageHandler handler, MessageLockRenewer lockRenewer) {
+        this.handler = handler;
+        this.lockRenewer = lockRenewer;
+    }
+
+    @Override
+    public CompletableFuture<Void> onMessageAsync(IMessage message) {
+        lockRenewer.start(message);
+
+        try {
+            return handler
+                .onMessageAsync(message)
+                .whenComplete((result, exception) -> lockRenewer.stop(message));
+        } catch (RuntimeException exception) {
+            lockRenewer.stop(message);
+            throw exception;
+        }
+    }
+
+    @Override
+    public void notifyException(Throwable exception, ExceptionPhase phase) {
+        handler.notifyException(exception, phase);
+    }
+}
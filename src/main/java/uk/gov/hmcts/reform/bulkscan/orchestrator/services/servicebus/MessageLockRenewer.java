@@ -0,0 +1,231 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.primitives.MessageLockLostException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps locks of messages being processed, renewing them at a fixed interval.
+ *
+ * <p>Lock of a message is renewed from {@link #start(IMessage)} until {@link #stop(IMessage)},
+ * but for no longer than the maximum duration. Renewal goes through the client that has received the message,
+ * see {@link IMessageOperations#renewLock(IMessage)}. Failed renewal is retried at the next interval for as long
+ * as the lock is known to be held. When Service Bus reports the lock as lost, the lock expires before
+ * it could be renewed or the maximum duration is reached, the lock is considered lost - the message
+ * returns to the queue and processing it any further would only duplicate the work of its next delivery.</p>
+ */
+@Component
+public class MessageLockRenewer {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageLockRenewer.class);
+
+    public static final String RENEWED_COUNTER = "envelope.lock.renewed";
+    public static final String LOST_COUNTER = "envelope.lock.lost";
+    public static final String HELD_GAUGE = "envelope.lock.held";
+
+    private final IMessageOperations messageOperations;
+    private final ScheduledExecutorService scheduler;
+    private final MeterRegistry meterRegistry;
+    private final Duration renewalInterval;
+    private final Duration maxDuration;
+    private final Clock clock;
+
+    private final Counter renewedCounter;
+
+    private final Map<UUID, Renewal> renewals = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MessageLockRenewer(
+        IMessageOperations messageOperations,
+        @Qualifier("message-lock-renewal") ScheduledExecutorService scheduler,
+        MeterRegistry meterRegistry,
+        @Value("${azure.servicebus.envelopes.lock-renewal.interval-millis}") long renewalIntervalMillis,
+        @Value("${azure.servicebus.envelopes.lock-renewal.max-duration-minutes}") long maxDurationMinutes
+    ) {
+        this(
+            messageOperations,
+            scheduler,
+            meterRegistry,
+            Duration.ofMillis(renewalIntervalMillis),
+            Duration.ofMinutes(maxDurationMinutes),
+            Clock.systemUTC()
+        );
+    }
+
+    MessageLockRenewer(
+        IMessageOperations messageOperations,
+        ScheduledExecutorService scheduler,
+        MeterRegistry meterRegistry,
+        Duration renewalInterval,
+        Duration maxDuration,
+        Clock clock
+    ) {
+        this.messageOperations = messageOperations;
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+        this.renewalInterval = renewalInterval;
+        this.maxDuration = maxDuration;
+        this.clock = clock;
+
+        this.renewedCounter = Counter
+            .builder(RENEWED_COUNTER)
+            .description("Number of times a lock of an envelope message has been renewed")
+            .register(meterRegistry);
+
+        Gauge
+            .builder(HELD_GAUGE, renewals, Map::size)
+            .description("Number of envelope messages whose locks are being renewed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts renewing the lock of the message.
+     */
+    public void start(IMessage message) {
+        Renewal renewal = new Renewal(message, message.getLockedUntilUtc(), clock.instant().plus(maxDuration));
+
+        renewals.put(message.getLockToken(), renewal);
+
+        // message can be stopped from another thread as soon as it's in renewals
+        renewal.schedule();
+    }
+
+    /**
+     * Stops renewing the lock of the message, once it's been completed, dead-lettered or abandoned.
+     */
+    public void stop(IMessage message) {
+        Renewal renewal = renewals.remove(message.getLockToken());
+
+        if (renewal != null) {
+            renewal.cancel();
+        }
+    }
+
+    /**
+     * Tells whether the lock of the message has been lost while processing it.
+     * Messages whose locks are not renewed by this class are never reported as lost.
+     */
+    public boolean isLockLost(IMessage message) {
+        Renewal renewal = renewals.get(message.getLockToken());
+
+        return renewal != null && renewal.lost;
+    }
+
+    private class Renewal {
+
+        private final IMessage message;
+        private final Instant deadline;
+
+        // null when not known
+        private volatile Instant lockedUntil;
+        private volatile boolean lost;
+
+        // guarded by this
+        private ScheduledFuture<?> task;
+        private boolean cancelled;
+
+        Renewal(IMessage message, Instant lockedUntil, Instant deadline) {
+            this.message = message;
+            this.lockedUntil = lockedUntil;
+            this.deadline = deadline;
+        }
+
+        synchronized void schedule() {
+            if (!cancelled) {
+                task = scheduler.scheduleWithFixedDelay(
+                    this::renew,
+                    renewalInterval.toMillis(),
+                    renewalInterval.toMillis(),
+                    TimeUnit.MILLISECONDS
+                );
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+
+        void renew() {
+            if (clock.instant().isAfter(deadline)) {
+                lose("max-duration-exceeded", null);
+                return;
+            }
+
+            try {
+                Instant renewedUntil = messageOperations.renewLock(message);
+
+                if (renewedUntil != null && !clock.instant().isBefore(renewedUntil)) {
+                    // the client that holds the lock has failed to renew it in time
+                    lose("lock-expired", null);
+                    return;
+                }
+
+                if (renewedUntil == null || lockedUntil == null || renewedUntil.isAfter(lockedUntil)) {
+                    renewedCounter.increment();
+                }
+
+                lockedUntil = renewedUntil;
+            } catch (MessageLockLostException exception) {
+                lose("renewal-failed", exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                lose("renewal-failed", exception);
+            } catch (Exception exception) {
+                retryWhileLocked(exception);
+            }
+        }
+
+        private void retryWhileLocked(Exception exception) {
+            Instant heldUntil = lockedUntil;
+
+            if (heldUntil == null || !clock.instant().isBefore(heldUntil)) {
+                lose("lock-expired", exception);
+            } else {
+                log.warn(
+                    "Failed to renew lock of message with ID {}. Retrying, lock held until {}",
+                    message.getMessageId(),
+                    heldUntil,
+                    exception
+                );
+            }
+        }
+
+        private void lose(String reason, Exception exception) {
+            lost = true;
+
+            cancel();
+
+            meterRegistry.counter(LOST_COUNTER, "reason", reason).increment();
+
+            log.warn(
+                "Lost lock of message with ID {}. Reason: {}, max duration: {} min",
+                message.getMessageId(),
+                reason,
+                maxDuration.toMinutes(),
+                exception
+            );
+        }
+    }
+}
@@ -1,27 +1,117 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageReceiver;
+import com.microsoft.azure.servicebus.Message;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY;
 
 @Service
 @Profile("!nosb") // do not register for the nosb (test) profile
 public class MessageOperations implements IMessageOperations {
 
     private QueueClient queueClient;
+    private IMessageReceiver receiver;
+
+    // messages are settled by the client that has received them
+    private boolean batchReceiveEnabled;
 
     @Autowired
-    public MessageOperations(@Qualifier("envelopes") QueueClient queueClient) {
+    public MessageOperations(
+        @Qualifier("envelopes") QueueClient queueClient,
+        @Qualifier("envelopes-receiver") IMessageReceiver receiver,
+        @Value("${azure.servicebus.envelopes.batch-receive.enabled}") boolean batchReceiveEnabled
+    ) {
         this.queueClient = queueClient;
+        this.receiver = receiver;
+        this.batchReceiveEnabled = batchReceiveEnabled;
     }
 
     public void complete(UUID lockToken) throws InterruptedException, ServiceBusException {
-        queueClient.complete(lockToken);
+        if (batchReceiveEnabled) {
+            receiver.complete(lockToken);
+        } else {
+            queueClient.complete(lockToken);
+        }
+    }
+
+    /**
+     * Completes messages without waiting for one completion before requesting the next.
+     */
+    public void completeAll(Collection<UUID> lockTokens) throws InterruptedException, ServiceBusException {
+        CompletableFuture<?>[] completions = lockTokens
+            .stream()
+            .map(this::completeAsync)
+            .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(completions).get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof ServiceBusException) {
+                throw (ServiceBusException) exception.getCause();
+            }
+
+            throw new ServiceBusException(false, exception.getCause());
+        }
+    }
+
+    private CompletableFuture<Void> completeAsync(UUID lockToken) {
+        return batchReceiveEnabled ? receiver.completeAsync(lockToken) : queueClient.completeAsync(lockToken);
+    }
+
+    public void abandon(UUID lockToken) throws InterruptedException, ServiceBusException {
+        if (batchReceiveEnabled) {
+            receiver.abandon(lockToken);
+        } else {
+            queueClient.abandon(lockToken);
+        }
+    }
+
+    public long scheduleRedelivery(
+        IMessage message,
+        int redeliveryCount,
+        Instant deliveryTime
+    ) throws InterruptedException, ServiceBusException {
+        Map<String, String> properties = message.getProperties() == null
+            ? new HashMap<>()
+            : new HashMap<>(message.getProperties());
+        properties.put(REDELIVERY_COUNT_PROPERTY, String.valueOf(redeliveryCount));
+
+        // new message ID - the copy must not be taken for a duplicate of the original
+        Message copy = new Message(message.getBody());
+        copy.setContentType(message.getContentType());
+        copy.setLabel(message.getLabel());
+        copy.setProperties(properties);
+
+        return queueClient.scheduleMessage(copy, deliveryTime);
+    }
+
+    public void cancelScheduledRedelivery(long sequenceNumber) throws InterruptedException, ServiceBusException {
+        queueClient.cancelScheduledMessage(sequenceNumber);
+    }
+
+    public Instant renewLock(IMessage message) throws InterruptedException, ServiceBusException {
+        if (batchReceiveEnabled) {
+            return receiver.renewMessageLock(message);
+        } else {
+            // queue client has no way to renew a lock on request - it renews locks of its messages itself
+            return message.getLockedUntilUtc();
+        }
     }
 
     public void deadLetter(
@@ -29,6 +119,10 @@ public class MessageOperations implements IMessageOperations {
         String reason,
         String description
     ) throws InterruptedException, ServiceBusException {
-        queueClient.deadLetter(lockToken, reason, description);
+        if (batchReceiveEnabled) {
+            receiver.deadLetter(lockToken, reason, description);
+        } else {
+            queueClient.deadLetter(lockToken, reason, description);
+        }
     }
 }
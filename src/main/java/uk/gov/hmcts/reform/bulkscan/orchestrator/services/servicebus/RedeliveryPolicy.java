@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Decides when a message that failed to be processed should be delivered again.
+ *
+ * <p>Delay grows exponentially with the number of redeliveries so far, starting from the initial delay
+ * and capped at the maximum. The count is kept in {@value #REDELIVERY_COUNT_PROPERTY} property,
+ * as each redelivery is a new message with its own delivery count.</p>
+ */
+@Component
+public class RedeliveryPolicy {
+
+    public static final String REDELIVERY_COUNT_PROPERTY = "redelivery_count";
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final int maxRedeliveries;
+
+    @Autowired
+    public RedeliveryPolicy(
+        @Value("${azure.servicebus.envelopes.redelivery.initial-delay-millis}") long initialDelayMillis,
+        @Value("${azure.servicebus.envelopes.redelivery.max-delay-millis}") long maxDelayMillis,
+        @Value("${azure.servicebus.envelopes.redelivery.max-redeliveries}") int maxRedeliveries
+    ) {
+        this(Duration.ofMillis(initialDelayMillis), Duration.ofMillis(maxDelayMillis), maxRedeliveries);
+    }
+
+    RedeliveryPolicy(Duration initialDelay, Duration maxDelay, int maxRedeliveries) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.maxRedeliveries = maxRedeliveries;
+    }
+
+    /**
+     * Number of times the message has been redelivered already.
+     */
+    public int redeliveryCount(IMessage message) {
+        Map<String, String> properties = message.getProperties();
+        String count = properties == null ? null : properties.get(REDELIVERY_COUNT_PROPERTY);
+
+        try {
+            return count == null ? 0 : Integer.parseInt(count);
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    public boolean canRedeliver(int redeliveryCount) {
+        return redeliveryCount < maxRedeliveries;
+    }
+
+    /**
+     * Delay of the next delivery of a message that has been redelivered given number of times.
+     */
+    public Duration delay(int redeliveryCount) {
+        // shift limited, so that the delay doesn't overflow before it is capped
+        Duration delay = initialDelay.multipliedBy(1L << Math.min(redeliveryCount, 30));
+
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+}
@@ -4,4 +4,8 @@ public class InvalidMessageException extends RuntimeException {
     public InvalidMessageException(Throwable cause) {
         super(cause);
     }
+
+    public InvalidMessageException(String message) {
+        super(message);
+    }
 }
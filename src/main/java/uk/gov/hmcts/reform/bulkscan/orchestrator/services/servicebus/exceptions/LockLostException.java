@@ -0,0 +1,11 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions;
+
+/**
+ * Thrown instead of making further CCD calls for a message whose lock has been lost.
+ */
+public class LockLostException extends RuntimeException {
+
+    public LockLostException(String message) {
+        super(message);
+    }
+}
@@ -3,5 +3,11 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler;
 public enum MessageProcessingResultType {
     SUCCESS,
     UNRECOVERABLE_FAILURE,
-    POTENTIALLY_RECOVERABLE_FAILURE
+    POTENTIALLY_RECOVERABLE_FAILURE,
+    // service the message depends on is known to be down - message is sent again for when it may be up
+    DEPENDENCY_UNAVAILABLE,
+    // there's no capacity to process the message now - it's sent again later, without counting it as a failure
+    REJECTED,
+    // lock of the message has been lost - the message is back in the queue, so it's left alone
+    LOCK_LOST
 }
@@ -18,7 +18,7 @@ public class Envelope {
     public final Instant openingDate;
     public final Classification classification;
     public final List<Document> documents;
-    public final List<OcrDataField> ocrData;
+    public final OcrData ocrData;
 
     public Envelope(
         @JsonProperty(value = "id", required = true) String id,
@@ -30,7 +30,7 @@ public class Envelope {
         @JsonProperty(value = "opening_date", required = true) Instant openingDate,
         @JsonProperty(value = "classification", required = true) Classification classification,
         @JsonProperty(value = "documents", required = true) List<Document> documents,
-        @JsonProperty(value = "ocr_data") List<OcrDataField> ocrData
+        @JsonProperty(value = "ocr_data") OcrData ocrData
     ) {
         this.id = id;
         this.caseRef = caseRef;
@@ -0,0 +1,111 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.helper.JsonSerialization.jsonFactory;
+
+/**
+ * OCR data of an envelope, kept as the unparsed JSON array it was received in.
+ *
+ * <p>Most envelopes never need their OCR data, so fields are only read when the data gets mapped.
+ * The JSON is expected to have been validated when the envelope was parsed.</p>
+ */
+public class OcrData {
+
+    public static final String NAME_FIELD = "metadata_field_name";
+    public static final String VALUE_FIELD = "metadata_field_value";
+
+    private final byte[] source;
+    private final int offset;
+    private final int length;
+    private final int size;
+
+    /**
+     * Creates OCR data from a slice of the given bytes.
+     *
+     * @param source bytes containing the JSON array of OCR fields
+     * @param offset position of the array in source
+     * @param length length of the array in bytes
+     * @param size number of OCR fields in the array
+     */
+    public OcrData(byte[] source, int offset, int length, int size) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reads OCR fields in their original order, mapping each name and value straight to the target type.
+     */
+    public <T> List<T> map(BiFunction<String, String, T> mapper) {
+        List<T> result = new ArrayList<>(size);
+
+        try (JsonParser parser = jsonFactory().createParser(source, offset, length)) {
+            parser.nextToken(); // start of the array
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                String value = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+
+                    if (NAME_FIELD.equals(field)) {
+                        name = parser.getValueAsString();
+                    } else if (VALUE_FIELD.equals(field)) {
+                        value = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+
+                result.add(mapper.apply(name, value));
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+
+        return result;
+    }
+
+    public List<OcrDataField> getFields() {
+        return map(OcrDataField::new);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+
+        return entries().equals(((OcrData) other).entries());
+    }
+
+    @Override
+    public int hashCode() {
+        return entries().hashCode();
+    }
+
+    private List<Map.Entry<String, String>> entries() {
+        return map(SimpleImmutableEntry::new);
+    }
+}
@@ -0,0 +1,9 @@
+CREATE TABLE envelope_ledger (
+  envelope_id VARCHAR(100) NOT NULL,
+  step VARCHAR(50) NOT NULL,
+  case_id VARCHAR(50),
+  completed_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (envelope_id, step)
+);
+
+CREATE INDEX envelope_ledger_completed_at_idx ON envelope_ledger (completed_at);
@@ -2,8 +2,8 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator;
 
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.common.collect.ImmutableList;
 import com.google.common.io.Resources;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -12,6 +12,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.Credential;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrDataField;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.idam.client.models.UserDetails;
@@ -121,10 +122,10 @@ public class SampleData {
     }
 
     public static Envelope envelope(int numberOfDocuments) {
-        return envelope(numberOfDocuments, ImmutableList.of(new OcrDataField("fieldName1", "value1")));
+        return envelope(numberOfDocuments, ocrData(new OcrDataField("fieldName1", "value1")));
     }
 
-    public static Envelope envelope(int numberOfDocuments, List<OcrDataField> ocrData) {
+    public static Envelope envelope(int numberOfDocuments, OcrData ocrData) {
         return new Envelope(
             ENVELOPE_ID,
             CASE_REF,
@@ -139,6 +140,23 @@ public class SampleData {
         );
     }
 
+    public static OcrData ocrData(OcrDataField... fields) {
+        ArrayNode json = objectMapper.createArrayNode();
+
+        for (OcrDataField field : fields) {
+            json.addObject()
+                .put(OcrData.NAME_FIELD, field.name)
+                .put(OcrData.VALUE_FIELD, field.value);
+        }
+
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(json);
+            return new OcrData(bytes, 0, bytes.length, fields.length);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not make OCR data", e);
+        }
+    }
+
     private static List<Document> documents(int numberOfDocuments) {
         return Stream.iterate(1, i -> i + 1)
             .map(index ->
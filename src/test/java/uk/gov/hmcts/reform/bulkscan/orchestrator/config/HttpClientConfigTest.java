@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class HttpClientConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void should_expose_connection_pool_state() {
+        // given
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(42);
+
+        // when
+        new HttpClientConfig().httpClientPoolMetrics(provider(pool)).bindTo(registry);
+
+        // then
+        assertThat(gauge("max")).isEqualTo(42);
+        assertThat(gauge("leased")).isZero();
+        assertThat(gauge("available")).isZero();
+        assertThat(gauge("pending")).isZero();
+    }
+
+    @Test
+    public void should_not_register_metrics_when_connections_are_not_pooled() {
+        // when
+        new HttpClientConfig()
+            .httpClientPoolMetrics(provider(new BasicHttpClientConnectionManager()))
+            .bindTo(registry);
+
+        // then
+        assertThat(registry.find("http.client.pool.connections").gauges()).isEmpty();
+    }
+
+    private double gauge(String state) {
+        return registry.get("http.client.pool.connections").tag("state", state).gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<HttpClientConnectionManager> provider(HttpClientConnectionManager manager) {
+        ObjectProvider<HttpClientConnectionManager> provider = mock(ObjectProvider.class);
+        given(provider.getIfAvailable()).willReturn(manager);
+        return provider;
+    }
+}
@@ -0,0 +1,194 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.AttachCaseCallbackService;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CallbackDeadline;
+import uk.gov.hmcts.reform.ccd.client.model.AboutToStartOrSubmitCallbackResponse;
+import uk.gov.hmcts.reform.ccd.client.model.CallbackRequest;
+import uk.gov.hmcts.reform.ccd.client.model.CallbackResponse;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CcdCallbackControllerTest {
+
+    private static final CaseDetails EXCEPTION_RECORD = CaseDetails.builder().id(1L).build();
+
+    @Mock
+    private AttachCaseCallbackService attachCaseCallbackService;
+
+    @Mock
+    private ScheduledExecutorService timeoutScheduler;
+
+    @Mock
+    private ScheduledFuture<?> timeoutTask;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        // callbacks without case details are not scheduled to time out
+        lenient().doReturn(timeoutTask).when(timeoutScheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void should_respond_with_errors_returned_by_service() {
+        // given
+        given(attachCaseCallbackService.process(eq(EXCEPTION_RECORD), any())).willReturn(singletonList("error"));
+
+        // when
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(Runnable::run).handleCallback(callback(EXCEPTION_RECORD));
+
+        // then
+        assertThat(errors(result)).containsExactly("error");
+        assertThat(inFlight()).isZero();
+        verify(timeoutScheduler).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        verify(timeoutTask).cancel(false);
+    }
+
+    @Test
+    public void should_respond_with_error_when_callback_times_out_before_submitting() {
+        // given
+        List<Runnable> tasks = new ArrayList<>();
+
+        // when
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(tasks::add).handleCallback(callback(EXCEPTION_RECORD));
+        timeout().run();
+
+        // then
+        assertThat(errors(result)).containsExactly(CcdCallbackController.TIMEOUT_ERROR);
+        assertThat(meterRegistry.get(CcdCallbackController.TIMEOUT_COUNTER).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_leave_response_to_callback_that_times_out_while_submitting() {
+        // given
+        List<Runnable> tasks = new ArrayList<>();
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(tasks::add).handleCallback(callback(EXCEPTION_RECORD));
+
+        willAnswer(invocation -> {
+            assertThat(invocation.<CallbackDeadline>getArgument(1).startSubmit()).isTrue();
+            timeout().run();
+            assertThat(result.hasResult()).isFalse();
+            return singletonList("error");
+        }).given(attachCaseCallbackService).process(eq(EXCEPTION_RECORD), any());
+
+        // when
+        tasks.forEach(Runnable::run);
+
+        // then
+        assertThat(errors(result)).containsExactly("error");
+        assertThat(meterRegistry.get(CcdCallbackController.TIMEOUT_COUNTER).counter().count()).isZero();
+    }
+
+    @Test
+    public void should_count_callbacks_in_flight_until_they_are_processed() {
+        // given
+        List<Runnable> tasks = new ArrayList<>();
+        given(attachCaseCallbackService.process(eq(EXCEPTION_RECORD), any())).willReturn(singletonList("error"));
+
+        // when
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(tasks::add).handleCallback(callback(EXCEPTION_RECORD));
+
+        // then
+        assertThat(result.hasResult()).isFalse();
+        assertThat(inFlight()).isEqualTo(1);
+
+        // and when
+        tasks.forEach(Runnable::run);
+
+        // then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    public void should_respond_with_error_when_callback_is_rejected() {
+        // when
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(task -> {
+                throw new RejectedExecutionException("full");
+            }).handleCallback(callback(EXCEPTION_RECORD));
+
+        // then
+        assertThat(errors(result)).containsExactly(CcdCallbackController.REJECTED_ERROR);
+        assertThat(inFlight()).isZero();
+        assertThat(meterRegistry.get(CcdCallbackController.REJECTED_COUNTER).counter().count()).isEqualTo(1);
+        verifyZeroInteractions(attachCaseCallbackService);
+    }
+
+    @Test
+    public void should_respond_with_error_when_case_details_are_missing() {
+        // when
+        DeferredResult<ResponseEntity<CallbackResponse>> result =
+            controller(Runnable::run).handleCallback(callback(null));
+
+        // then
+        assertThat(errors(result)).containsExactly(CcdCallbackController.EMPTY_CALLBACK_ERROR);
+        verifyZeroInteractions(attachCaseCallbackService);
+    }
+
+    private CcdCallbackController controller(Executor executor) {
+        return new CcdCallbackController(
+            attachCaseCallbackService,
+            executor,
+            timeoutScheduler,
+            meterRegistry,
+            1000,
+            2000
+        );
+    }
+
+    private Runnable timeout() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(timeoutScheduler).schedule(task.capture(), anyLong(), any());
+        return task.getValue();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(CcdCallbackController.IN_FLIGHT_GAUGE).gauge().value();
+    }
+
+    private static CallbackRequest callback(CaseDetails caseDetails) {
+        return CallbackRequest.builder().caseDetails(caseDetails).eventId("attachToExistingCase").build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> errors(DeferredResult<ResponseEntity<CallbackResponse>> result) {
+        ResponseEntity<CallbackResponse> response = (ResponseEntity<CallbackResponse>) result.getResult();
+
+        return ((AboutToStartOrSubmitCallbackResponse) response.getBody()).getErrors();
+    }
+}
@@ -16,20 +16,33 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.model.out.JurisdictionConfigura
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
 import uk.gov.hmcts.reform.idam.client.IdamClient;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.BDDMockito.willThrow;
 
 @ExtendWith(MockitoExtension.class)
 public class IdamConfigStatusEndpointTest {
 
+    private static final Duration CHECK_TIMEOUT = Duration.ofSeconds(1);
+
     private static final String VALID_JURISDICTION = "jurisdiction";
 
     private static final String INVALID_JURISDICTION = "something else";
@@ -45,6 +58,8 @@ public class IdamConfigStatusEndpointTest {
     @Mock
     private IdamClient idamClient;
 
+    private JurisdictionToUserMapping mapping;
+
     private IdamConfigStatusEndpoint endpoint;
 
     @BeforeEach
@@ -59,10 +74,16 @@ public class IdamConfigStatusEndpointTest {
                 "password", "pass"
             )
         );
-        JurisdictionToUserMapping mapping = new JurisdictionToUserMapping();
+        mapping = new JurisdictionToUserMapping();
         mapping.setUsers(users);
 
-        endpoint = new IdamConfigStatusEndpoint(mapping, idamClient);
+        endpoint = new IdamConfigStatusEndpoint(
+            mapping,
+            idamClient,
+            Executors.newCachedThreadPool(),
+            CHECK_TIMEOUT,
+            Clock.systemUTC()
+        );
     }
 
     @DisplayName("Should respond with status message stating given jurisdiction is correctly configured")
@@ -70,7 +91,8 @@ public class IdamConfigStatusEndpointTest {
     public void should_respond_accordingly_for_correct_jurisdiction_config() {
         willReturn("token").given(idamClient).authenticateUser("username", "password");
 
-        assertThat(endpoint.jurisdiction(VALID_JURISDICTION)).isEqualToComparingFieldByField(VALID_RESPONSE);
+        assertThat(endpoint.jurisdiction(VALID_JURISDICTION))
+            .isEqualToIgnoringGivenFields(VALID_RESPONSE, "ageSeconds");
     }
 
     @DisplayName("Should respond with expected status given jurisdiction is configured incorrectly")
@@ -78,7 +100,8 @@ public class IdamConfigStatusEndpointTest {
     public void should_respond_accordingly_for_incorrect_jurisdiction_config() {
         willThrow(new RuntimeException("oh no")).given(idamClient).authenticateUser("user", "pass");
 
-        assertThat(endpoint.jurisdiction(INVALID_JURISDICTION)).isEqualToComparingFieldByField(INVALID_RESPONSE);
+        assertThat(endpoint.jurisdiction(INVALID_JURISDICTION))
+            .isEqualToIgnoringGivenFields(INVALID_RESPONSE, "ageSeconds");
     }
 
     @DisplayName("Should respond with expected status given jurisdiction does not exist in the configuration setup")
@@ -101,8 +124,8 @@ public class IdamConfigStatusEndpointTest {
         willThrow(new RuntimeException("oh no")).given(idamClient).authenticateUser("user", "pass");
 
         assertThat(endpoint.jurisdictions())
-            .usingRecursiveFieldByFieldElementComparator()
-            .containsExactly(VALID_RESPONSE, INVALID_RESPONSE);
+            .usingElementComparatorIgnoringFields("ageSeconds")
+            .containsExactlyInAnyOrder(VALID_RESPONSE, INVALID_RESPONSE);
     }
 
     @DisplayName("Should respond with status message for given jurisdiction in case FeignException is received")
@@ -127,4 +150,80 @@ public class IdamConfigStatusEndpointTest {
             .extracting("jurisdiction", "isCorrect")
             .containsExactly(tuple(INVALID_JURISDICTION, false).toArray());
     }
+
+    @DisplayName("Should serve cached status with its age instead of checking credentials again")
+    @Test
+    public void should_serve_cached_status_with_its_age() {
+        Instant checkedAt = Instant.parse("2019-02-01T10:00:00Z");
+        Clock clock = mock(Clock.class);
+        given(clock.instant()).willReturn(checkedAt, checkedAt, checkedAt.plusSeconds(42));
+        willReturn("token").given(idamClient).authenticateUser("username", "password");
+
+        IdamConfigStatusEndpoint cachingEndpoint = new IdamConfigStatusEndpoint(
+            mapping, idamClient, Runnable::run, CHECK_TIMEOUT, clock
+        );
+
+        assertThat(cachingEndpoint.jurisdiction(VALID_JURISDICTION).ageSeconds).isZero();
+        assertThat(cachingEndpoint.jurisdiction(VALID_JURISDICTION))
+            .isEqualToComparingFieldByField(new JurisdictionConfigurationStatus(VALID_JURISDICTION, true, null, 42L));
+
+        verify(idamClient, times(1)).authenticateUser("username", "password");
+    }
+
+    @DisplayName("Should replace cached statuses with the ones read on refresh")
+    @Test
+    public void should_update_statuses_on_refresh() {
+        willReturn("token").given(idamClient).authenticateUser("username", "password");
+        willThrow(new RuntimeException("oh no")).given(idamClient).authenticateUser("user", "pass");
+
+        assertThat(endpoint.jurisdiction(INVALID_JURISDICTION).isCorrect).isFalse();
+
+        willReturn("token").given(idamClient).authenticateUser("user", "pass");
+        endpoint.refresh();
+
+        assertThat(endpoint.jurisdictions())
+            .extracting("jurisdiction", "isCorrect")
+            .containsExactlyInAnyOrder(tuple(VALID_JURISDICTION, true), tuple(INVALID_JURISDICTION, true));
+    }
+
+    @DisplayName("Should report jurisdiction as incorrectly configured when IDAM doesn't respond in time")
+    @Test
+    public void should_respond_with_failure_when_check_times_out() {
+        CountDownLatch idamResponded = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            idamResponded.await(5, TimeUnit.SECONDS);
+            return "token";
+        }).given(idamClient).authenticateUser("username", "password");
+
+        try {
+            assertThat(endpoint.jurisdiction(VALID_JURISDICTION))
+                .extracting("jurisdiction", "isCorrect", "errorDescription")
+                .containsExactly(VALID_JURISDICTION, false, "Credentials check timed out after 1000 ms");
+        } finally {
+            idamResponded.countDown();
+        }
+    }
+
+    @DisplayName("Should report jurisdiction as incorrectly configured when its check can't be started")
+    @Test
+    public void should_respond_with_failure_when_check_is_rejected() {
+        IdamConfigStatusEndpoint endpointWithFullPool = new IdamConfigStatusEndpoint(
+            mapping,
+            idamClient,
+            task -> {
+                throw new RejectedExecutionException("full");
+            },
+            CHECK_TIMEOUT,
+            Clock.systemUTC()
+        );
+
+        assertThat(endpointWithFullPool.jurisdiction(VALID_JURISDICTION))
+            .extracting("jurisdiction", "isCorrect", "errorDescription")
+            .containsExactly(
+                VALID_JURISDICTION,
+                false,
+                "Credentials check rejected - too many checks in progress"
+            );
+        verify(idamClient, never()).authenticateUser(anyString(), anyString());
+    }
 }
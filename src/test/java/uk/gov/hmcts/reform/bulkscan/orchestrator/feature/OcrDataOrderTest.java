@@ -13,6 +13,7 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envel
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrDataField;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.ListIterator;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,18 +28,19 @@ public class OcrDataOrderTest {
 
         // when
         Envelope envelope = EnvelopeParser.parse(envelopeMessage);
-        assertThat(envelope.ocrData).isInstanceOf(ArrayList.class);
+        List<OcrDataField> ocrData = envelope.ocrData.getFields();
+        assertThat(ocrData).isInstanceOf(ArrayList.class);
 
         // and
         ExceptionRecordMapper mapper = new ExceptionRecordMapper();
         ExceptionRecord record = mapper.mapEnvelope(envelope);
         assertThat(record.ocrData).isInstanceOf(ArrayList.class);
-        assertThat(record.ocrData.size()).isEqualTo(envelope.ocrData.size());
+        assertThat(record.ocrData.size()).isEqualTo(ocrData.size());
 
         // then
         int i = 0;
 
-        ListIterator<OcrDataField> entries = envelope.ocrData.listIterator();
+        ListIterator<OcrDataField> entries = ocrData.listIterator();
         while (entries.hasNext()) {
             OcrDataField expectedEntry = entries.next();
             assertThat(record.ocrData.get(i).value.key).isEqualTo(expectedEntry.name);
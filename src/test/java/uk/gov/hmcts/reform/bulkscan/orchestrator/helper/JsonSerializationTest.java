@@ -0,0 +1,66 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.helper;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.ScannedDocument;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.ProcessedEnvelope;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonSerializationTest {
+
+    @Test
+    public void should_convert_ccd_value_to_scanned_document() {
+        // given
+        Map<String, Object> value = ImmutableMap.of(
+            "fileName", "doc.pdf",
+            "controlNumber", "1000",
+            "type", "other",
+            "scannedDate", "2019-01-01T10:00:00.000",
+            "url", ImmutableMap.of("document_url", "http://dm-store/documents/1")
+        );
+
+        // when
+        ScannedDocument document = JsonSerialization.toScannedDocument(value);
+
+        // then
+        assertThat(document.fileName).isEqualTo("doc.pdf");
+        assertThat(document.controlNumber).isEqualTo("1000");
+        assertThat(document.type).isEqualTo("other");
+        assertThat(document.scannedDate).isEqualTo(LocalDateTime.of(2019, 1, 1, 10, 0));
+        assertThat(document.url.documentUrl).isEqualTo("http://dm-store/documents/1");
+    }
+
+    @Test
+    public void should_reject_value_that_is_not_a_scanned_document() {
+        assertThatThrownBy(() -> JsonSerialization.toScannedDocument(ImmutableMap.of("scannedDate", "yesterday")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_write_processed_envelope() throws Exception {
+        assertThat(JsonSerialization.processedEnvelopeWriter().writeValueAsString(new ProcessedEnvelope("123")))
+            .isEqualTo("{\"id\":\"123\"}");
+    }
+
+    @Test
+    public void should_register_afterburner_only_when_requested() {
+        assertThat(JsonSerialization.createObjectMapper(true).getRegisteredModuleIds())
+            .anySatisfy(id -> assertThat(id.toString()).contains("Afterburner"));
+
+        assertThat(JsonSerialization.createObjectMapper(false).getRegisteredModuleIds())
+            .noneSatisfy(id -> assertThat(id.toString()).contains("Afterburner"));
+    }
+
+    @Test
+    public void should_read_afterburner_switch_from_system_property_before_environment() {
+        assertThat(JsonSerialization.isAfterburnerEnabled(null, null)).isTrue();
+        assertThat(JsonSerialization.isAfterburnerEnabled(null, "false")).isFalse();
+        assertThat(JsonSerialization.isAfterburnerEnabled("true", "false")).isTrue();
+        assertThat(JsonSerialization.isAfterburnerEnabled("false", null)).isFalse();
+    }
+}
@@ -51,7 +51,7 @@ public class ExceptionRecordMapperTest {
 
         assertThat(ocrDataAsList(exceptionRecord.ocrData))
             .usingFieldByFieldElementComparator()
-            .containsAll(envelope.ocrData);
+            .containsAll(envelope.ocrData.getFields());
     }
 
     @Test
@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.mappers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.Test;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.SupplementaryEvidence;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
@@ -7,13 +8,18 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Docum
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.time.Instant.now;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.objectMapper;
 
 @SuppressWarnings("checkstyle:LineLength")
 public class SupplementaryEvidenceMapperTest {
@@ -23,10 +29,10 @@ public class SupplementaryEvidenceMapperTest {
     @Test
     public void maps_all_fields_correctly() {
         // given
-        List<Document> existingDocs =
+        List<Map<String, Object>> existingDocs =
             asList(
-                new Document("a.pdf", "aaa", "type_a", "subtype_a", now().plusSeconds(1), "http://localhost/a.pdf"),
-                new Document("b.pdf", "bbb", "type_b", "subtype_b", now().plusSeconds(2), "http://localhost/b.pdf")
+                existingDoc("a.pdf", "aaa", "http://localhost/a.pdf"),
+                existingDoc("b.pdf", "bbb", "http://localhost/b.pdf")
             );
 
         List<Document> envelopeDocs =
@@ -40,8 +46,8 @@ public class SupplementaryEvidenceMapperTest {
 
         // then
         assertThat(result.evidenceHandled).isEqualTo("No");
-        assertThat(result.scannedDocuments).hasSize(4);
-        assertThat(result.scannedDocuments)
+        assertThat(result.existingScannedDocuments).isSameAs(existingDocs);
+        assertThat(result.newScannedDocuments)
             .extracting(ccdDoc ->
                 tuple(
                     ccdDoc.value.fileName,
@@ -52,8 +58,6 @@ public class SupplementaryEvidenceMapperTest {
                     ccdDoc.value.url.documentUrl
                 ))
             .containsExactly(
-                tuple("a.pdf", "aaa", "type_a", "subtype_a", toLocalDateTime(existingDocs.get(0).scannedAt), "http://localhost/a.pdf"),
-                tuple("b.pdf", "bbb", "type_b", "subtype_b", toLocalDateTime(existingDocs.get(1).scannedAt), "http://localhost/b.pdf"),
                 tuple("x.pdf", "xxx", "type_x", "subtype_x", toLocalDateTime(envelopeDocs.get(0).scannedAt), "http://localhost/x.pdf"),
                 tuple("y.pdf", "yyy", "type_y", "subtype_y", toLocalDateTime(envelopeDocs.get(1).scannedAt), "http://localhost/y.pdf")
             );
@@ -62,10 +66,10 @@ public class SupplementaryEvidenceMapperTest {
     @Test
     public void should_not_add_document_from_envelope_if_document_with_the_same_url_is_already_present_in_case() {
         // given
-        List<Document> existingDocs =
+        List<Map<String, Object>> existingDocs =
             asList(
-                new Document("a.pdf", "aaa", "type_a", "subtype_a", now().plusSeconds(1), "http://localhost/a.pdf"),
-                new Document("b.pdf", "bbb", "type_b", "subtype_b", now().plusSeconds(2), "http://localhost/b.pdf")
+                existingDoc("a.pdf", "aaa", "http://localhost/a.pdf"),
+                existingDoc("b.pdf", "bbb", "http://localhost/b.pdf")
             );
 
         List<Document> envelopeDocs =
@@ -79,25 +83,18 @@ public class SupplementaryEvidenceMapperTest {
 
         // then
         assertThat(result.evidenceHandled).isEqualTo("No");
-        assertThat(result.scannedDocuments).hasSize(3); // only one doc should be added
-        assertThat(result.scannedDocuments)
-            .extracting(ccdDoc ->
-                tuple(ccdDoc.value.fileName, ccdDoc.value.url.documentUrl)
-            )
-            .containsExactly(
-                tuple("a.pdf", "http://localhost/a.pdf"),
-                tuple("b.pdf", "http://localhost/b.pdf"),
-                tuple("b.pdf", "http://localhost/xxxxx.pdf")
-            );
+        assertThat(result.newScannedDocuments) // only one doc should be added
+            .extracting(ccdDoc -> tuple(ccdDoc.value.fileName, ccdDoc.value.url.documentUrl))
+            .containsExactly(tuple("b.pdf", "http://localhost/xxxxx.pdf"));
     }
 
     @Test
     public void should_not_add_document_from_envelope_if_document_with_the_same_control_number_is_already_present_in_case() {
         // given
-        List<Document> existingDocs =
+        List<Map<String, Object>> existingDocs =
             asList(
-                new Document("a.pdf", "AAA", "type_a", "subtype_a", now().plusSeconds(1), "http://localhost/a.pdf"),
-                new Document("b.pdf", "BBB", "type_b", "subtype_b", now().plusSeconds(2), "http://localhost/b.pdf")
+                existingDoc("a.pdf", "AAA", "http://localhost/a.pdf"),
+                existingDoc("b.pdf", "BBB", "http://localhost/b.pdf")
             );
 
         List<Document> envelopeDocs =
@@ -110,27 +107,111 @@ public class SupplementaryEvidenceMapperTest {
         SupplementaryEvidence result = mapper.map(existingDocs, envelopeDocs);
 
         // then
-        assertThat(result.scannedDocuments).hasSize(3); // only one doc should be added
-        assertThat(result.scannedDocuments)
+        assertThat(result.newScannedDocuments) // only one doc should be added
             .extracting(ccdDoc -> tuple(ccdDoc.value.fileName, ccdDoc.value.controlNumber))
-            .containsExactly(
-                tuple("a.pdf", "AAA"),
-                tuple("b.pdf", "BBB"),
-                tuple("d.pdf", "DDD")
+            .containsExactly(tuple("d.pdf", "DDD"));
+    }
+
+    @Test
+    public void should_keep_order_of_envelope_documents_when_some_of_them_are_already_present_in_case() {
+        // given
+        List<Map<String, Object>> existingDocs =
+            asList(
+                existingDoc("a.pdf", "AAA", "http://localhost/a.pdf"),
+                existingDoc("b.pdf", "BBB", "http://localhost/b.pdf")
             );
+
+        List<Document> envelopeDocs =
+            asList(
+                new Document("e.pdf", "EEE", "type_e", "subtype_e", now().plusSeconds(3), "http://localhost/e.pdf"),
+                new Document("b1.pdf", "BBB", "type_b", "subtype_b", now().plusSeconds(4), "http://localhost/b1.pdf"), // same control number!
+                new Document("c.pdf", "CCC", "type_c", "subtype_c", now().plusSeconds(5), "http://localhost/c.pdf"),
+                new Document("a1.pdf", "AAA1", "type_a", "subtype_a", now().plusSeconds(6), "http://localhost/a.pdf"), // same url!
+                new Document("c1.pdf", "CCC", "type_c", "subtype_c", now().plusSeconds(7), "http://localhost/c1.pdf")
+            );
+
+        // when
+        SupplementaryEvidence result = mapper.map(existingDocs, envelopeDocs);
+
+        // then documents within the envelope are not compared with each other
+        assertThat(result.newScannedDocuments)
+            .extracting(ccdDoc -> ccdDoc.value.fileName)
+            .containsExactly("e.pdf", "c.pdf", "c1.pdf");
+    }
+
+    @Test
+    public void should_serialize_existing_documents_untouched_followed_by_new_ones() {
+        // given
+        Map<String, Object> existingDoc = existingDoc("a.pdf", "AAA", "http://localhost/a.pdf");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> existingDocValue = (Map<String, Object>) existingDoc.get("value");
+        existingDocValue.put("exceptionRecordReference", "1539007368674134");
+
+        List<Document> envelopeDocs = singletonList(
+            new Document("x.pdf", "XXX", "type_x", null, now(), "http://localhost/x.pdf")
+        );
+
+        // when
+        JsonNode json = objectMapper.valueToTree(mapper.map(singletonList(existingDoc), envelopeDocs));
+
+        // then
+        assertThat(json.fieldNames()).containsExactlyInAnyOrder("evidenceHandled", "scannedDocuments");
+        assertThat(json.get("scannedDocuments")).hasSize(2);
+
+        JsonNode first = json.get("scannedDocuments").get(0);
+        assertThat(first.get("id").asText()).isEqualTo("id-a.pdf");
+        assertThat(first.get("value").get("exceptionRecordReference").asText()).isEqualTo("1539007368674134");
+
+        JsonNode second = json.get("scannedDocuments").get(1);
+        assertThat(second.get("value").get("fileName").asText()).isEqualTo("x.pdf");
+    }
+
+    @Test
+    public void should_skip_empty_documents_present_in_case() {
+        // given
+        List<Map<String, Object>> existingDocs = asList(
+            singletonMap("value", null),
+            existingDoc("a.pdf", "AAA", "http://localhost/a.pdf")
+        );
+
+        List<Document> envelopeDocs = singletonList(
+            new Document("x.pdf", "XXX", "type_x", null, now(), "http://localhost/x.pdf")
+        );
+
+        // when
+        SupplementaryEvidence result = mapper.map(existingDocs, envelopeDocs);
+
+        // then
+        assertThat(result.existingScannedDocuments).hasSize(2);
+        assertThat(result.newScannedDocuments).extracting(ccdDoc -> ccdDoc.value.fileName).containsExactly("x.pdf");
     }
 
     @Test
     public void handles_empty_document_list() {
         // given
-        List<Document> existingDocuments = emptyList();
+        List<Map<String, Object>> existingDocuments = emptyList();
         List<Document> envelopeDocuments = emptyList();
 
         // when
         SupplementaryEvidence result = mapper.map(existingDocuments, envelopeDocuments);
 
         // then
-        assertThat(result.scannedDocuments).isEmpty();
+        assertThat(result.getScannedDocuments()).isEmpty();
+    }
+
+    private static Map<String, Object> existingDoc(String fileName, String controlNumber, String url) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("fileName", fileName);
+        value.put("controlNumber", controlNumber);
+        value.put("type", "other");
+        value.put("scannedDate", "2018-10-01T00:00:00.100");
+        value.put("url", singletonMap("document_url", url));
+
+        Map<String, Object> element = new HashMap<>();
+        element.put("id", "id-" + fileName);
+        element.put("value", value);
+
+        return element;
     }
 
     private LocalDateTime toLocalDateTime(Instant instant) {
@@ -0,0 +1,170 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
+
+import com.google.common.collect.ImmutableList;
+import com.microsoft.azure.servicebus.IMessage;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticatorFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.IMessageOperations;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageLockRenewer;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelopeJson;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EnvelopeBatchProcessorTest {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    @Mock
+    private EnvelopeEventProcessor processor;
+
+    @Mock
+    private CcdAuthenticatorFactory authenticatorFactory;
+
+    @Mock
+    private MessageLockRenewer lockRenewer;
+
+    @Mock
+    private IMessageOperations messageOperations;
+
+    @Test
+    public void should_authenticate_jurisdiction_once_and_complete_processed_messages_together() throws Exception {
+        // given
+        IMessage first = message(envelopeJson());
+        IMessage second = message(envelopeJson());
+        IMessage failed = message(envelopeJson());
+
+        given(processor.processBatchMessage(eq(first), any())).willReturn(processed(first));
+        given(processor.processBatchMessage(eq(second), any())).willReturn(processed(second));
+        given(processor.processBatchMessage(eq(failed), any()))
+            .willReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        // when
+        batchProcessor().process(ImmutableList.of(first, second, failed));
+
+        // then
+        verify(authenticatorFactory, times(1)).createForJurisdiction(JURSIDICTION);
+        verify(messageOperations).completeAll(ImmutableList.of(first.getLockToken(), second.getLockToken()));
+
+        // and locks are renewed while the batch is processed
+        verify(lockRenewer).start(first);
+        verify(lockRenewer).stop(first);
+    }
+
+    @Test
+    public void should_schedule_redelivery_of_messages_of_jurisdiction_that_cannot_be_authenticated()
+        throws Exception {
+        // given
+        IMessage message = message(envelopeJson());
+        given(authenticatorFactory.createForJurisdiction(JURSIDICTION)).willThrow(new RuntimeException("IDAM down"));
+
+        // when
+        batchProcessor().process(ImmutableList.of(message));
+
+        // then
+        ArgumentCaptor<Envelope> envelope = ArgumentCaptor.forClass(Envelope.class);
+        verify(processor).redeliverBatchMessage(eq(message), envelope.capture());
+        assertThat(envelope.getValue().jurisdiction).isEqualTo(JURSIDICTION);
+
+        verify(processor, never()).processBatchMessage(any(), any());
+        verify(messageOperations, never()).completeAll(any());
+        verify(lockRenewer).stop(message);
+    }
+
+    @Test
+    public void should_process_envelopes_of_jurisdiction_in_chunks_its_lane_lets_in() throws Exception {
+        // given a batch bigger than the number of envelopes the lane lets in at a time
+        List<IMessage> batch = IntStream.range(0, 5).mapToObj(i -> message(envelopeJson())).collect(toList());
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(batch.size());
+
+        given(processor.processBatchMessage(any(), any())).willAnswer(invocation -> {
+            IMessage message = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            return CompletableFuture.supplyAsync(
+                () -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                    inFlight.decrementAndGet();
+                    return Optional.of(message.getLockToken());
+                },
+                executor
+            );
+        });
+
+        // when
+        batchProcessor().process(batch);
+        executor.shutdown();
+
+        // then every envelope is processed, no more than the lane lets in at a time
+        verify(processor, times(batch.size())).processBatchMessage(any(), any());
+        assertThat(maxInFlight.get()).isEqualTo(MAX_IN_FLIGHT);
+
+        verify(messageOperations).completeAll(batch.stream().map(IMessage::getLockToken).collect(toList()));
+    }
+
+    @Test
+    public void should_pass_unparseable_messages_to_processor_without_authenticating() {
+        // given
+        IMessage invalid = message("invalid body".getBytes());
+        given(processor.processBatchMessage(invalid)).willReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        // when
+        batchProcessor().process(ImmutableList.of(invalid));
+
+        // then
+        verify(processor).processBatchMessage(invalid);
+        verify(authenticatorFactory, never()).createForJurisdiction(any());
+        verify(processor, never()).redeliverBatchMessage(any(), any());
+    }
+
+    private EnvelopeBatchProcessor batchProcessor() {
+        return new EnvelopeBatchProcessor(
+            processor,
+            authenticatorFactory,
+            lockRenewer,
+            messageOperations,
+            MAX_IN_FLIGHT
+        );
+    }
+
+    private static IMessage message(byte[] body) {
+        IMessage message = mock(IMessage.class);
+        given(message.getBody()).willReturn(body);
+        // not every message gets completed
+        lenient().when(message.getLockToken()).thenReturn(UUID.randomUUID());
+        return message;
+    }
+
+    private static CompletableFuture<Optional<UUID>> processed(IMessage message) {
+        return CompletableFuture.completedFuture(Optional.of(message.getLockToken()));
+    }
+}
@@ -1,43 +1,87 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
 
+import com.google.common.collect.ImmutableMap;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
 import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.primitives.ServiceBusException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseRetriever;
+import org.springframework.http.HttpStatus;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadataCache;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdUnavailableException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events.EventPublisher;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events.EventPublisherContainer;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.CompletedStep;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.EnvelopeLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerException;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.AdaptiveConcurrencyLimit;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageLockRenewer;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.MessageOperations;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.NotificationSendingException;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.ProcessedEnvelopeNotifier;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.RedeliveryPolicy;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
 
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.envelopeJson;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.EnvelopeParser.parse;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification.NEW_APPLICATION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification.SUPPLEMENTARY_EVIDENCE;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EnvelopeEventProcessorTest {
 
     private static final String DEAD_LETTER_REASON_PROCESSING_ERROR = "Message processing error";
 
+    private static final int MAX_REDELIVERIES = 3;
+
     @Mock
     private IMessage someMessage;
 
@@ -53,32 +97,68 @@ public class EnvelopeEventProcessorTest {
     @Mock
     private ProcessedEnvelopeNotifier processedEnvelopeNotifier;
 
+    @Mock
+    private EnvelopeLedger ledger;
+
+    @Mock
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @Mock
+    private MessageLockRenewer lockRenewer;
+
+    private ExecutorService processingExecutor;
+
+    private final RedeliveryPolicy redeliveryPolicy = new RedeliveryPolicy(5000, 600_000, MAX_REDELIVERIES);
+
+    private JurisdictionLanes jurisdictionLanes;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private EnvelopeEventProcessor processor;
 
     @Before
     public void before() {
+        processingExecutor = Executors.newFixedThreadPool(2);
+        jurisdictionLanes = new JurisdictionLanes(
+            new JurisdictionToUserMapping(), 2, 10, 100, new SimpleMeterRegistry()
+        );
+        meterRegistry = new SimpleMeterRegistry();
+
         processor = new EnvelopeEventProcessor(
-            mock(CaseRetriever.class),
+            mock(CaseMetadataCache.class),
             eventPublisherContainer,
             processedEnvelopeNotifier,
-            messageOperations
+            messageOperations,
+            processingExecutor,
+            jurisdictionLanes,
+            metrics(),
+            ledger,
+            concurrencyLimit,
+            redeliveryPolicy,
+            lockRenewer
         );
 
         when(eventPublisherContainer.getPublisher(any(Classification.class), any()))
             .thenReturn(eventPublisher);
+        when(processedEnvelopeNotifier.notifyAsync(any())).thenCallRealMethod();
 
         given(someMessage.getBody()).willReturn(envelopeJson());
         given(someMessage.getLockToken()).willReturn(UUID.randomUUID());
     }
 
+    @After
+    public void after() {
+        processingExecutor.shutdownNow();
+        jurisdictionLanes.shutdown();
+    }
+
     @Test
     public void should_return_completed_future_if_everything_went_fine() {
         // when
         CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
 
         // then
-        assertThat(result.isDone()).isTrue();
-        assertThat(result.isCompletedExceptionally()).isFalse();
+        assertThatCode(result::join).doesNotThrowAnyException();
     }
 
     @Test
@@ -90,7 +170,7 @@ public class EnvelopeEventProcessorTest {
         CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
 
         // then
-        assertThat(result.isCompletedExceptionally()).isFalse();
+        assertThatCode(result::join).doesNotThrowAnyException();
     }
 
     @Test
@@ -103,7 +183,7 @@ public class EnvelopeEventProcessorTest {
         CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
 
         // then
-        assertThat(result.isCompletedExceptionally()).isFalse();
+        assertThatCode(result::join).doesNotThrowAnyException();
     }
 
     @Test
@@ -117,6 +197,46 @@ public class EnvelopeEventProcessorTest {
         verifyNoMoreInteractions(messageOperations);
     }
 
+    @Test
+    public void should_return_lock_token_instead_of_completing_message_processed_in_batch() {
+        // when
+        Optional<UUID> lockToken = processor.processBatchMessage(someMessage).join();
+
+        // then
+        assertThat(lockToken).contains(someMessage.getLockToken());
+        verifyNoMoreInteractions(messageOperations);
+    }
+
+    @Test
+    public void should_process_batch_message_whose_envelope_has_already_been_parsed() throws Exception {
+        // when
+        Optional<UUID> lockToken = processor.processBatchMessage(someMessage, parse(someMessage.getBody())).join();
+
+        // then
+        assertThat(lockToken).contains(someMessage.getLockToken());
+        verify(eventPublisher).publish(any());
+        verifyNoMoreInteractions(messageOperations);
+    }
+
+    @Test
+    public void should_schedule_redelivery_of_batch_message_without_processing_it() throws Exception {
+        // when
+        processor.redeliverBatchMessage(someMessage, parse(someMessage.getBody()));
+
+        // then
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(1), any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verify(eventPublisher, never()).publish(any());
+
+        Counter counter = meterRegistry
+            .find(ProcessingMetrics.RESULT_COUNTER)
+            .tag("result", "POTENTIALLY_RECOVERABLE_FAILURE")
+            .tag("jurisdiction", "bulkscan")
+            .counter();
+        assertThat(counter).isNotNull();
+        assertThat(counter.count()).isEqualTo(1);
+    }
+
     @Test
     public void should_dead_letter_the_message_when_unrecoverable_failure() throws Exception {
         // given
@@ -139,46 +259,411 @@ public class EnvelopeEventProcessorTest {
     }
 
     @Test
-    public void should_dead_letter_the_message_when_notification_sending_fails() throws Exception {
+    public void should_schedule_redelivery_of_the_message_when_notification_sending_fails() throws Exception {
         // given
-        String exceptionMessage = "test exception";
-
-        willThrow(new NotificationSendingException(exceptionMessage, null))
+        given(ledger.isShared()).willReturn(true);
+        willThrow(new NotificationSendingException("test exception", null))
             .given(processedEnvelopeNotifier)
             .notify(any());
 
-
         // when
         CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
         result.join();
 
+        // then
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(1), any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verifyNoMoreInteractions(messageOperations);
+
+        // and
+        verify(ledger, never()).recordNotificationSent(any());
+    }
+
+    @Test
+    public void should_dead_letter_the_message_when_notification_sending_fails_and_ledger_is_not_shared()
+        throws Exception {
+        // given
+        given(ledger.isShared()).willReturn(false);
+        willThrow(new NotificationSendingException("test exception", null))
+            .given(processedEnvelopeNotifier)
+            .notify(any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
         // then
         verify(messageOperations).deadLetter(
             eq(someMessage.getLockToken()),
             eq(DEAD_LETTER_REASON_PROCESSING_ERROR),
-            eq(exceptionMessage)
+            eq("test exception")
         );
+        verifyNoMoreInteractions(messageOperations);
+    }
 
+    @Test
+    public void should_dead_letter_the_message_when_completed_step_cannot_be_recorded() throws Exception {
+        // given
+        willThrow(new LedgerException("Failed to record step", new IllegalStateException("store not available")))
+            .given(eventPublisher)
+            .publish(any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then the envelope is not published again on the next delivery
+        verify(messageOperations).deadLetter(
+            eq(someMessage.getLockToken()),
+            eq(DEAD_LETTER_REASON_PROCESSING_ERROR),
+            eq("Failed to record step")
+        );
         verifyNoMoreInteractions(messageOperations);
     }
 
     @Test
-    public void should_not_finalize_the_message_when_recoverable_failure() throws Exception {
+    public void should_not_publish_envelope_again_when_it_has_already_been_published() {
+        // given
+        given(ledger.findCaseEvent(any())).willReturn(Optional.of(
+            new CompletedStep(LedgerStep.DOCUMENTS_ATTACHED, "123", Instant.now())
+        ));
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(eventPublisherContainer, never()).getPublisher(any(), any());
+        verify(eventPublisher, never()).publish(any());
+
+        // and the processing is finished
+        verify(processedEnvelopeNotifier).notify(any());
+        verify(ledger).recordNotificationSent(any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+    }
+
+    @Test
+    public void should_not_send_notification_again_when_it_has_already_been_sent() {
+        // given
+        given(ledger.findCaseEvent(any())).willReturn(Optional.of(
+            new CompletedStep(LedgerStep.EXCEPTION_RECORD_CREATED, "123", Instant.now())
+        ));
+        given(ledger.isNotificationSent(any())).willReturn(true);
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(processedEnvelopeNotifier, never()).notify(any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+    }
+
+    @Test
+    public void should_schedule_redelivery_with_backoff_when_recoverable_failure() throws Exception {
         Exception processingFailureCause = new RuntimeException(
             "exception of type treated as recoverable"
         );
 
-        // given an error occurs during message processing
+        // given an error occurs during processing of a message redelivered once already
         willThrow(processingFailureCause).given(eventPublisher).publish(any());
+        given(someMessage.getProperties())
+            .willReturn(ImmutableMap.of(RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY, "1"));
 
         // when
+        Instant start = Instant.now();
         CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
         result.join();
 
-        // then the message is not finalised (completed/dead-lettered)
+        // then a copy is scheduled with doubled delay and the original is completed
+        ArgumentCaptor<Instant> deliveryTime = ArgumentCaptor.forClass(Instant.class);
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(2), deliveryTime.capture());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verifyNoMoreInteractions(messageOperations);
+
+        assertThat(deliveryTime.getValue()).isBetween(start.plusSeconds(10), Instant.now().plusSeconds(10));
+    }
+
+    @Test
+    public void should_dead_letter_the_message_when_it_has_been_redelivered_too_many_times() throws Exception {
+        // given
+        willThrow(new RuntimeException("still failing")).given(eventPublisher).publish(any());
+        given(someMessage.getProperties()).willReturn(ImmutableMap.of(
+            RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY, String.valueOf(MAX_REDELIVERIES)
+        ));
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(messageOperations).deadLetter(eq(someMessage.getLockToken()), eq("Too many processing attempts"), any());
+        verifyNoMoreInteractions(messageOperations);
+    }
+
+    @Test
+    public void should_not_complete_the_message_when_redelivery_cannot_be_scheduled() throws Exception {
+        // given
+        willThrow(new RuntimeException("processing failure")).given(eventPublisher).publish(any());
+        willThrow(new ServiceBusException(true)).given(messageOperations).scheduleRedelivery(any(), anyInt(), any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then the message returns to the queue once its lock expires
+        verify(messageOperations, never()).complete(any());
+    }
+
+    @Test
+    public void should_cancel_scheduled_copy_when_the_original_message_cannot_be_completed() throws Exception {
+        // given
+        willThrow(new RuntimeException("processing failure")).given(eventPublisher).publish(any());
+        given(messageOperations.scheduleRedelivery(any(), anyInt(), any())).willReturn(42L);
+        willThrow(new ServiceBusException(true)).given(messageOperations).complete(someMessage.getLockToken());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then the original is delivered again once its lock expires, so the copy must not be
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(1), any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verify(messageOperations).cancelScheduledRedelivery(42L);
         verifyNoMoreInteractions(messageOperations);
     }
 
+    @Test
+    public void should_schedule_redelivery_of_the_message_when_jurisdiction_lane_is_full() throws Exception {
+        // given
+        JurisdictionLanes fullLanes = mock(JurisdictionLanes.class);
+        given(fullLanes.tryEnter(any())).willReturn(true);
+        given(fullLanes.forJurisdiction(any())).willReturn(task -> {
+            throw new RejectedExecutionException("lane is full");
+        });
+
+        // when
+        processor(processingExecutor, fullLanes).onMessageAsync(someMessage).join();
+
+        // then the envelope is not processed and the message is scheduled for redelivery
+        verify(eventPublisher, never()).publish(any());
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(0), any());
+        verifyNoMoreInteractions(processedEnvelopeNotifier);
+        verify(fullLanes).leave(JURSIDICTION);
+    }
+
+    @Test
+    public void should_schedule_redelivery_of_the_message_when_jurisdiction_has_too_many_envelopes_in_flight()
+        throws Exception {
+        // given
+        JurisdictionLanes busyLanes = mock(JurisdictionLanes.class);
+        given(busyLanes.tryEnter(JURSIDICTION)).willReturn(false);
+
+        // when
+        processor(processingExecutor, busyLanes).onMessageAsync(someMessage).join();
+
+        // then
+        verify(eventPublisher, never()).publish(any());
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(0), any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verify(busyLanes, never()).forJurisdiction(any());
+        verify(busyLanes, never()).leave(any());
+    }
+
+    @Test
+    public void should_keep_redelivery_count_of_the_message_rejected_by_its_lane() throws Exception {
+        // given the message has used up all its redeliveries
+        JurisdictionLanes busyLanes = mock(JurisdictionLanes.class);
+        given(busyLanes.tryEnter(JURSIDICTION)).willReturn(false);
+        given(someMessage.getProperties()).willReturn(ImmutableMap.of(
+            RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY, String.valueOf(MAX_REDELIVERIES)
+        ));
+
+        // when
+        Instant start = Instant.now();
+        processor(processingExecutor, busyLanes).onMessageAsync(someMessage).join();
+
+        // then it's sent again after the initial delay, not dead-lettered
+        ArgumentCaptor<Instant> deliveryTime = ArgumentCaptor.forClass(Instant.class);
+        verify(messageOperations)
+            .scheduleRedelivery(eq(someMessage), eq(MAX_REDELIVERIES), deliveryTime.capture());
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verifyNoMoreInteractions(messageOperations);
+
+        assertThat(deliveryTime.getValue()).isBetween(start.plusSeconds(5), Instant.now().plusSeconds(5));
+    }
+
+    @Test
+    public void should_schedule_redelivery_of_the_message_when_processing_pool_is_full() throws Exception {
+        // given
+        Executor fullPool = task -> {
+            throw new RejectedExecutionException("pool is full");
+        };
+
+        // when
+        processor(fullPool, jurisdictionLanes).onMessageAsync(someMessage).join();
+
+        // then the message is settled anyway
+        verify(eventPublisher, never()).publish(any());
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(0), any());
+        verify(messageOperations).complete(someMessage.getLockToken());
+    }
+
+    @Test
+    public void should_send_the_message_again_when_ccd_calls_are_suspended() throws Exception {
+        // given
+        willThrow(new CcdUnavailableException("bulkscan:any", Duration.ofSeconds(30)))
+            .given(eventPublisher)
+            .publish(any());
+
+        // when
+        Instant start = Instant.now();
+        processor.onMessageAsync(someMessage).join();
+
+        // then the message is returned to the queue as a new message, without using up delivery attempts,
+        // to be delivered once CCD may accept calls again
+        ArgumentCaptor<Instant> deliveryTime = ArgumentCaptor.forClass(Instant.class);
+        verify(messageOperations).scheduleRedelivery(eq(someMessage), eq(0), deliveryTime.capture());
+        assertThat(deliveryTime.getValue()).isBetween(start.plusSeconds(30), Instant.now().plusSeconds(30));
+
+        verify(messageOperations).complete(someMessage.getLockToken());
+        verify(messageOperations, never()).abandon(any());
+        verifyNoMoreInteractions(messageOperations, processedEnvelopeNotifier);
+    }
+
+    @Test
+    public void should_stop_processing_and_leave_the_message_alone_when_its_lock_has_been_lost() {
+        // given the lock is lost after the publisher has been resolved
+        given(lockRenewer.isLockLost(someMessage)).willReturn(false, true);
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then no more CCD calls are made
+        verify(eventPublisherContainer).getPublisher(any(), any());
+        verify(eventPublisher, never()).publish(any());
+
+        // and the message is neither settled nor scheduled for redelivery
+        verifyNoMoreInteractions(messageOperations, processedEnvelopeNotifier);
+    }
+
+    @Test
+    public void should_report_publishing_outcome_to_concurrency_limit() {
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(concurrencyLimit).onSample(anyLong(), eq(false));
+    }
+
+    @Test
+    public void should_report_failed_publishing_to_concurrency_limit() {
+        // given
+        willThrow(feignException(HttpStatus.BAD_GATEWAY)).given(eventPublisher).publish(any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(concurrencyLimit).onSample(anyLong(), eq(true));
+    }
+
+    @Test
+    public void should_report_publishing_rejected_by_ccd_as_not_failed_to_concurrency_limit() {
+        // given CCD has responded, only not with success
+        willThrow(feignException(HttpStatus.UNPROCESSABLE_ENTITY)).given(eventPublisher).publish(any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(concurrencyLimit).onSample(anyLong(), eq(false));
+    }
+
+    @Test
+    public void should_not_report_publishing_failures_unrelated_to_ccd_load_to_concurrency_limit() {
+        // given
+        willThrow(new RuntimeException("invalid envelope"))
+            .willThrow(new CcdUnavailableException("bulkscan:any", Duration.ofMillis(10)))
+            .given(eventPublisher)
+            .publish(any());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        verify(eventPublisher, times(2)).publish(any());
+        verify(concurrencyLimit, never()).onSample(anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void should_count_processing_result_by_jurisdiction_classification_and_publisher() {
+        // given
+        given(eventPublisher.getName()).willReturn("somePublisher");
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        Counter counter = meterRegistry
+            .find(ProcessingMetrics.RESULT_COUNTER)
+            .tag("result", "SUCCESS")
+            .tag("jurisdiction", "bulkscan")
+            .tag("classification", SUPPLEMENTARY_EVIDENCE.name())
+            .tag("publisher", "somepublisher")
+            .counter();
+
+        assertThat(counter).isNotNull();
+        assertThat(counter.count()).isEqualTo(1);
+
+        // and
+        assertThat(meterRegistry.find(ProcessingMetrics.STAGE_TIMER).tag("stage", "parse").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.find(ProcessingMetrics.STAGE_TIMER).tag("stage", "notification").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_unparseable_message_with_unknown_jurisdiction() {
+        // given
+        given(someMessage.getBody()).willReturn("foo".getBytes());
+
+        // when
+        processor.onMessageAsync(someMessage).join();
+
+        // then
+        Counter counter = meterRegistry
+            .find(ProcessingMetrics.RESULT_COUNTER)
+            .tag("result", "UNRECOVERABLE_FAILURE")
+            .tag("jurisdiction", ProcessingMetrics.UNKNOWN)
+            .tag("publisher", ProcessingMetrics.UNKNOWN)
+            .counter();
+
+        assertThat(counter).isNotNull();
+        assertThat(counter.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_release_calling_thread_while_envelope_is_being_published() throws Exception {
+        // given
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+
+        willAnswer(invocation -> {
+            publishing.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(eventPublisher).publish(any());
+
+        // when
+        CompletableFuture<Void> result = processor.onMessageAsync(someMessage);
+
+        // then
+        assertThat(publishing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(result.isDone()).isFalse();
+
+        // and when
+        released.countDown();
+        result.join();
+
+        // then
+        verify(messageOperations).complete(someMessage.getLockToken());
+    }
+
     @Test
     public void notify_exception_should_not_throw_exception() {
         assertThatCode(() ->
@@ -215,4 +700,64 @@ public class EnvelopeEventProcessorTest {
         // then no notification is sent
         verifyNoMoreInteractions(processedEnvelopeNotifier);
     }
+
+    @Test
+    public void should_process_messages_from_many_reader_threads() throws Exception {
+        // given
+        int messageCount = 50;
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+
+        // when
+        List<CompletableFuture<Void>> results = IntStream
+            .range(0, messageCount)
+            .mapToObj(i -> CompletableFuture
+                .supplyAsync(() -> processor.onMessageAsync(someMessage), readers)
+                .thenCompose(result -> result)
+            )
+            .collect(toList());
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        readers.shutdown();
+
+        // then
+        verify(processedEnvelopeNotifier, times(messageCount)).notify(any());
+        verify(messageOperations, times(messageCount)).complete(someMessage.getLockToken());
+        verifyNoMoreInteractions(messageOperations);
+    }
+
+    private static FeignException feignException(HttpStatus status) {
+        return FeignException.errorStatus(
+            "methodKey",
+            Response
+                .builder()
+                .request(mock(Request.class))
+                .headers(Collections.emptyMap())
+                .status(status.value())
+                .reason(status.getReasonPhrase())
+                .build()
+        );
+    }
+
+    private ProcessingMetrics metrics() {
+        JurisdictionToUserMapping users = new JurisdictionToUserMapping();
+        users.setUsers(ImmutableMap.of(JURSIDICTION, ImmutableMap.of("username", "user", "password", "pass")));
+
+        return new ProcessingMetrics(meterRegistry, users);
+    }
+
+    private EnvelopeEventProcessor processor(Executor executor, JurisdictionLanes lanes) {
+        return new EnvelopeEventProcessor(
+            mock(CaseMetadataCache.class),
+            eventPublisherContainer,
+            processedEnvelopeNotifier,
+            messageOperations,
+            executor,
+            lanes,
+            metrics(),
+            ledger,
+            concurrencyLimit,
+            redeliveryPolicy,
+            lockRenewer
+        );
+    }
 }
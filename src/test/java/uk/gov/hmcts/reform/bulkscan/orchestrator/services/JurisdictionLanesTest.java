@@ -0,0 +1,109 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services;
+
+import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JurisdictionLanesTest {
+
+    private MeterRegistry meterRegistry;
+
+    private JurisdictionLanes lanes;
+
+    @Before
+    public void setUp() {
+        JurisdictionToUserMapping users = new JurisdictionToUserMapping();
+        users.setUsers(ImmutableMap.of(
+            "BULKSCAN", ImmutableMap.of("username", "bulkscan", "password", "pass"),
+            "SSCS", ImmutableMap.of("username", "sscs", "password", "pass")
+        ));
+
+        meterRegistry = new SimpleMeterRegistry();
+        lanes = new JurisdictionLanes(users, 1, 1, 2, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    public void should_give_each_configured_jurisdiction_its_own_lane() {
+        assertThat(lanes.forJurisdiction("BULKSCAN")).isSameAs(lanes.forJurisdiction("bulkscan"));
+        assertThat(lanes.forJurisdiction("BULKSCAN")).isNotSameAs(lanes.forJurisdiction("SSCS"));
+    }
+
+    @Test
+    public void should_use_default_lane_for_unknown_jurisdiction() {
+        Executor defaultLane = lanes.forJurisdiction(JurisdictionLanes.DEFAULT_LANE);
+
+        assertThat(lanes.forJurisdiction("UNKNOWN")).isSameAs(defaultLane);
+        assertThat(lanes.forJurisdiction(null)).isSameAs(defaultLane);
+        assertThat(lanes.forJurisdiction("BULKSCAN")).isNotSameAs(defaultLane);
+    }
+
+    @Test
+    public void should_reject_work_when_lane_is_full_without_affecting_other_lanes() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch otherLaneDone = new CountDownLatch(1);
+
+        Executor bulkscanLane = lanes.forJurisdiction("BULKSCAN");
+        bulkscanLane.execute(() -> await(blocked)); // occupies the only thread
+        bulkscanLane.execute(() -> { }); // fills the queue
+
+        assertThatThrownBy(() -> bulkscanLane.execute(() -> { }))
+            .isInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("bulkscan");
+
+        lanes.forJurisdiction("SSCS").execute(otherLaneDone::countDown);
+        assertThat(otherLaneDone.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(meterRegistry.get("envelope.lane.rejected").tag("lane", "bulkscan").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("envelope.lane.queue.size").tag("lane", "bulkscan").gauge().value())
+            .isEqualTo(1);
+
+        blocked.countDown();
+    }
+
+    @Test
+    public void should_limit_envelopes_in_flight_per_lane() {
+        assertThat(lanes.tryEnter("BULKSCAN")).isTrue();
+        assertThat(lanes.tryEnter("BULKSCAN")).isTrue();
+        assertThat(lanes.tryEnter("BULKSCAN")).isFalse();
+
+        // other lanes are not affected
+        assertThat(lanes.tryEnter("SSCS")).isTrue();
+
+        assertThat(meterRegistry.get("envelope.lane.in_flight").tag("lane", "bulkscan").gauge().value())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("envelope.lane.rejected").tag("lane", "bulkscan").counter().count())
+            .isEqualTo(1);
+
+        // and when
+        lanes.leave("BULKSCAN");
+
+        // then
+        assertThat(lanes.tryEnter("BULKSCAN")).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
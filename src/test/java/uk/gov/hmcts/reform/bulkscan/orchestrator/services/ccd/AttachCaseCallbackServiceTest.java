@@ -0,0 +1,214 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AttachCaseCallbackServiceTest {
+
+    private static final String JURISDICTION = "BULKSCAN";
+    private static final String CASE_REF = "1539007368674134";
+    private static final long EXCEPTION_RECORD_ID = 1539007368600000L;
+
+    @Mock
+    private CcdApi ccdApi;
+
+    private ExecutorService executor;
+
+    private AttachCaseCallbackService service;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        service = new AttachCaseCallbackService(ccdApi, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void should_attach_exception_record_to_case() {
+        // given
+        CaseDetails theCase = caseWithDocument("1000");
+        StartEventResponse event = StartEventResponse.builder().eventId("attachScannedDocs").token("token").build();
+
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(theCase);
+        given(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION)).willReturn(exceptionRecord(null));
+        given(ccdApi.startAttachScannedDocs(theCase)).willReturn(event);
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF));
+
+        // then
+        assertThat(errors).isEmpty();
+        verify(ccdApi).attachExceptionRecord(any(), anyMap(), anyString(), any());
+    }
+
+    @Test
+    public void should_not_attach_exception_record_when_callback_has_timed_out() {
+        // given
+        CaseDetails theCase = caseWithDocument("1000");
+        StartEventResponse event = StartEventResponse.builder().eventId("attachScannedDocs").token("token").build();
+
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(theCase);
+        given(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION)).willReturn(exceptionRecord(null));
+        given(ccdApi.startAttachScannedDocs(theCase)).willReturn(event);
+
+        CallbackDeadline deadline = new CallbackDeadline();
+        deadline.expire();
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF), deadline);
+
+        // then
+        assertThat(errors).containsExactly(
+            "Callback timed out before exception record could be attached to the case"
+        );
+        verify(ccdApi, never()).attachExceptionRecord(any(), anyMap(), anyString(), any());
+    }
+
+    @Test
+    public void should_not_time_out_callback_once_exception_record_is_being_attached() {
+        // given
+        CaseDetails theCase = caseWithDocument("1000");
+        StartEventResponse event = StartEventResponse.builder().eventId("attachScannedDocs").token("token").build();
+        CallbackDeadline deadline = new CallbackDeadline();
+
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(theCase);
+        given(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION)).willReturn(exceptionRecord(null));
+        given(ccdApi.startAttachScannedDocs(theCase)).willReturn(event);
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF), deadline);
+
+        // then
+        assertThat(errors).isEmpty();
+        assertThat(deadline.expire()).isFalse();
+    }
+
+    @Test
+    public void should_ask_to_try_again_when_ccd_calls_are_rejected() {
+        // given
+        AttachCaseCallbackService serviceWithFullPool = new AttachCaseCallbackService(ccdApi, task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        // when
+        List<String> errors = serviceWithFullPool.process(exceptionRecord(CASE_REF));
+
+        // then
+        assertThat(errors).containsExactly(AttachCaseCallbackService.REJECTED_ERROR);
+        verify(ccdApi, never()).attachExceptionRecord(any(), anyMap(), anyString(), any());
+    }
+
+    @Test
+    public void should_report_target_case_error_when_both_reads_fail() {
+        // given
+        given(ccdApi.getCase(CASE_REF, JURISDICTION))
+            .willThrow(new CallbackException("Could not find case: " + CASE_REF));
+        // may not be called before the target case error is reported
+        lenient()
+            .when(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION))
+            .thenThrow(new CallbackException("Could not find case: " + EXCEPTION_RECORD_ID));
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF));
+
+        // then
+        assertThat(errors).containsExactly("Could not find case: " + CASE_REF);
+        verify(ccdApi, never()).startAttachScannedDocs(any());
+    }
+
+    @Test
+    public void should_report_attached_exception_record_before_duplicate_documents() {
+        // given
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(caseWithDocument("2000"));
+        given(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION))
+            .willReturn(exceptionRecord("1234567890123456"));
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF));
+
+        // then
+        assertThat(errors).containsExactly("Exception record is already attached to a case");
+        verify(ccdApi, never()).attachExceptionRecord(any(), anyMap(), anyString(), any());
+    }
+
+    @Test
+    public void should_not_start_event_when_case_already_has_the_documents() {
+        // given
+        given(ccdApi.getCase(CASE_REF, JURISDICTION)).willReturn(caseWithDocument("2000"));
+        given(ccdApi.getCase(String.valueOf(EXCEPTION_RECORD_ID), JURISDICTION)).willReturn(exceptionRecord(null));
+
+        // when
+        List<String> errors = service.process(exceptionRecord(CASE_REF));
+
+        // then
+        assertThat(errors).containsExactly(
+            "Document(s) with control number [2000] are already attached to case reference: " + CASE_REF
+        );
+        verify(ccdApi, never()).startAttachScannedDocs(any());
+    }
+
+    private static CaseDetails caseWithDocument(String controlNumber) {
+        return CaseDetails.builder()
+            .id(Long.valueOf(CASE_REF))
+            .jurisdiction(JURISDICTION)
+            .caseTypeId("Bulk_Scanned")
+            .data(ImmutableMap.of("scannedDocuments", singletonList(document(controlNumber))))
+            .build();
+    }
+
+    private static CaseDetails exceptionRecord(String attachToCaseReference) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("scannedDocuments", new ArrayList<>(singletonList(document("2000"))));
+
+        if (attachToCaseReference != null) {
+            data.put("attachToCaseReference", attachToCaseReference);
+        }
+
+        return CaseDetails.builder()
+            .id(EXCEPTION_RECORD_ID)
+            .jurisdiction(JURISDICTION)
+            .caseTypeId("ExceptionRecord")
+            .data(data)
+            .build();
+    }
+
+    private static Map<String, Object> document(String controlNumber) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("controlNumber", controlNumber);
+
+        Map<String, Object> document = new HashMap<>();
+        document.put("value", value);
+
+        return document;
+    }
+}
@@ -0,0 +1,150 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.CASE_REF;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CaseMetadataCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration MISSING_CASE_TTL = Duration.ofSeconds(30);
+
+    private static final CaseDetails CASE_DETAILS = CaseDetails
+        .builder()
+        .id(Long.valueOf(CASE_REF))
+        .jurisdiction(JURSIDICTION)
+        .caseTypeId("Bulk_Scanned")
+        .build();
+
+    @Mock
+    private CaseRetriever caseRetriever;
+
+    private MutableTicker ticker;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CaseMetadataCache cache;
+
+    @Before
+    public void setUp() {
+        ticker = new MutableTicker();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CaseMetadataCache(caseRetriever, meterRegistry, 100, TTL, MISSING_CASE_TTL, ticker);
+    }
+
+    @Test
+    public void should_retrieve_case_once_while_it_is_cached() {
+        // given
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(CASE_DETAILS);
+
+        // when
+        Optional<CaseMetadata> first = cache.get(JURSIDICTION, CASE_REF);
+        Optional<CaseMetadata> second = cache.get(JURSIDICTION, CASE_REF);
+
+        // then
+        assertThat(first).hasValueSatisfying(metadata -> {
+            assertThat(metadata.id).isEqualTo(Long.valueOf(CASE_REF));
+            assertThat(metadata.jurisdiction).isEqualTo(JURSIDICTION);
+            assertThat(metadata.caseTypeId).isEqualTo("Bulk_Scanned");
+        });
+        assertThat(second).containsSame(first.get());
+
+        verify(caseRetriever).retrieve(JURSIDICTION, CASE_REF);
+
+        // and
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_retrieve_case_again_when_entry_expires() {
+        // given
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(CASE_DETAILS);
+        cache.get(JURSIDICTION, CASE_REF);
+
+        // when
+        ticker.advance(TTL.plusSeconds(1));
+        cache.get(JURSIDICTION, CASE_REF);
+
+        // then
+        verify(caseRetriever, times(2)).retrieve(JURSIDICTION, CASE_REF);
+    }
+
+    @Test
+    public void should_cache_missing_case_for_shorter_time() {
+        // given
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(null);
+
+        // when
+        assertThat(cache.get(JURSIDICTION, CASE_REF)).isEmpty();
+        assertThat(cache.get(JURSIDICTION, CASE_REF)).isEmpty();
+
+        // then
+        verify(caseRetriever).retrieve(JURSIDICTION, CASE_REF);
+
+        // and when
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(CASE_DETAILS);
+        ticker.advance(MISSING_CASE_TTL.plusSeconds(1));
+
+        // then
+        assertThat(cache.get(JURSIDICTION, CASE_REF)).isPresent();
+    }
+
+    @Test
+    public void should_retrieve_case_again_when_invalidated() {
+        // given
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(CASE_DETAILS);
+        cache.get(JURSIDICTION, CASE_REF);
+
+        // when
+        cache.invalidate(JURSIDICTION, CASE_REF);
+        cache.get(JURSIDICTION, CASE_REF);
+
+        // then
+        verify(caseRetriever, times(2)).retrieve(JURSIDICTION, CASE_REF);
+    }
+
+    @Test
+    public void should_not_cache_retrieval_failure() {
+        // given
+        RuntimeException failure = new RuntimeException("CCD not available");
+        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willThrow(failure).willReturn(CASE_DETAILS);
+
+        // when
+        assertThatThrownBy(() -> cache.get(JURSIDICTION, CASE_REF)).isSameAs(failure);
+
+        // then
+        assertThat(cache.get(JURSIDICTION, CASE_REF)).isPresent();
+    }
+
+    private static class MutableTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(Duration duration) {
+            nanos += duration.toNanos();
+        }
+    }
+}
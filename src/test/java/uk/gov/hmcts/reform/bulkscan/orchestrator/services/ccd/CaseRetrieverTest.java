@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 import feign.FeignException;
 import feign.Request;
 import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -32,11 +33,13 @@ public class CaseRetrieverTest {
     @Mock
     private CcdAuthenticatorFactory authenticator;
 
+    private final CcdCircuitBreakers circuitBreakers = new CcdCircuitBreakers(new SimpleMeterRegistry(), 5, 30);
+
     private CaseRetriever retriever;
 
     @Test
     public void should_retrieve_case_successfully() {
-        retriever = new CaseRetriever(authenticator, dataApi);
+        retriever = new CaseRetriever(authenticator, dataApi, circuitBreakers);
 
         given(dataApi.getCase(USER_TOKEN, SERVICE_TOKEN, CASE_REF))
             .willReturn(THE_CASE);
@@ -48,7 +51,7 @@ public class CaseRetrieverTest {
 
     @Test
     public void should_return_null_for_when_the_case_is_not_found() {
-        retriever = new CaseRetriever(authenticator, dataApi);
+        retriever = new CaseRetriever(authenticator, dataApi, circuitBreakers);
         FeignException exception = FeignException.errorStatus(
             "methodKey",
             Response
@@ -72,7 +75,7 @@ public class CaseRetrieverTest {
 
     @Test
     public void should_return_null_for_when_the_case_ref_is_not_valid() {
-        retriever = new CaseRetriever(authenticator, dataApi);
+        retriever = new CaseRetriever(authenticator, dataApi, circuitBreakers);
         FeignException exception = FeignException.errorStatus(
             "methodKey",
             Response
@@ -95,7 +98,7 @@ public class CaseRetrieverTest {
 
     @Test
     public void should_throw_exception_when_api_response_is_other_than_not_found_feign_exception() {
-        retriever = new CaseRetriever(authenticator, dataApi);
+        retriever = new CaseRetriever(authenticator, dataApi, circuitBreakers);
         FeignException exception = FeignException.errorStatus(
             "methodKey",
             Response
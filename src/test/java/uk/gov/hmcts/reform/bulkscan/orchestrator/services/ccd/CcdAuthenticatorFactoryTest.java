@@ -6,19 +6,19 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
-import uk.gov.hmcts.reform.idam.client.IdamClient;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.CachedIdamCredential;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.IdamCachedClient;
+
+import java.time.Instant;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.PASSWORD;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.SERVICE_TOKEN;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_CREDS;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_DETAILS;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_ID;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_NAME;
 import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_TOKEN;
 
 
@@ -27,23 +27,20 @@ public class CcdAuthenticatorFactoryTest {
     @Mock
     private AuthTokenGenerator tokenGenerator;
     @Mock
-    private IdamClient idamClient;
-    @Mock
-    private JurisdictionToUserMapping users;
+    private IdamCachedClient idamClient;
 
     private CcdAuthenticatorFactory service;
 
     @Before
     public void before() {
-        service = new CcdAuthenticatorFactory(tokenGenerator, idamClient, users);
+        service = new CcdAuthenticatorFactory(tokenGenerator, idamClient);
     }
 
     @Test
     public void should_sucessfully_return_authInfo() {
-        given(users.getUser(eq(JURSIDICTION))).willReturn(USER_CREDS);
         given(tokenGenerator.generate()).willReturn(SERVICE_TOKEN);
-        given(idamClient.authenticateUser(eq(USER_NAME), eq(PASSWORD))).willReturn(USER_TOKEN);
-        given(idamClient.getUserDetails(USER_TOKEN)).willReturn(USER_DETAILS);
+        given(idamClient.getIdamCredentials(eq(JURSIDICTION)))
+            .willReturn(new CachedIdamCredential(USER_TOKEN, USER_DETAILS, Instant.now().plusSeconds(60)));
 
         CcdAuthenticator authenticator = service.createForJurisdiction(JURSIDICTION);
 
@@ -52,4 +49,12 @@ public class CcdAuthenticatorFactoryTest {
         assertThat(authenticator.getUserDetails().getId()).isEqualTo(USER_ID);
     }
 
+    @Test
+    public void should_remove_rejected_token_of_jurisdiction_from_cache() {
+        CcdAuthenticator rejected = CcdAuthenticator.from(() -> SERVICE_TOKEN, USER_DETAILS, () -> USER_TOKEN);
+
+        service.removeFromIdamCache(JURSIDICTION, rejected);
+
+        verify(idamClient).removeAccessTokenFromCache(JURSIDICTION, USER_TOKEN);
+    }
 }
@@ -0,0 +1,202 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
+
+import com.google.common.base.Ticker;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class CcdCircuitBreakersTest {
+
+    private static final String JURISDICTION = "BULKSCAN";
+    private static final String CASE_TYPE = "Bulk_Scanned";
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final AtomicInteger ccdCalls = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableTicker ticker;
+    private CcdCircuitBreakers circuitBreakers;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ticker = new MutableTicker();
+        circuitBreakers = new CcdCircuitBreakers(meterRegistry, FAILURE_THRESHOLD, OPEN_DURATION, ticker);
+    }
+
+    @Test
+    public void should_not_call_ccd_once_failure_threshold_is_reached() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.BAD_GATEWAY);
+
+        // when
+        ticker.advance(Duration.ofSeconds(10));
+
+        // then
+        assertThatThrownBy(() -> circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall))
+            .isInstanceOf(CcdUnavailableException.class)
+            .hasFieldOrPropertyWithValue("retryAfter", Duration.ofSeconds(20));
+
+        assertThat(ccdCalls.get()).isEqualTo(FAILURE_THRESHOLD);
+        assertThat(state()).isEqualTo(2);
+        assertThat(meterRegistry.get(CcdCircuitBreakers.OPENED_COUNTER).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_count_client_errors_as_failures() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.NOT_FOUND);
+
+        // when
+        String result = circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall);
+
+        // then
+        assertThat(result).isEqualTo("ok");
+        assertThat(state()).isZero();
+    }
+
+    @Test
+    public void should_reset_failure_count_after_successful_call() {
+        // given
+        failTimes(FAILURE_THRESHOLD - 1, HttpStatus.INTERNAL_SERVER_ERROR);
+        circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall);
+
+        // when
+        failTimes(FAILURE_THRESHOLD - 1, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        // then
+        assertThat(circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall)).isEqualTo("ok");
+    }
+
+    @Test
+    public void should_let_single_trial_call_through_once_open_period_has_passed() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.SERVICE_UNAVAILABLE);
+        ticker.advance(OPEN_DURATION);
+
+        // when
+        String result = circuitBreakers.call(JURISDICTION, CASE_TYPE, () -> {
+            // other calls made while the trial is in progress
+            assertThatThrownBy(() -> circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall))
+                .isInstanceOf(CcdUnavailableException.class)
+                .hasFieldOrPropertyWithValue("retryAfter", CcdCircuitBreakers.TRIAL_IN_PROGRESS_RETRY);
+            assertThat(state()).isEqualTo(1);
+
+            return ccdCall();
+        });
+
+        // then the circuit is closed again
+        assertThat(result).isEqualTo("ok");
+        assertThat(state()).isZero();
+        assertThat(circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall)).isEqualTo("ok");
+    }
+
+    @Test
+    public void should_open_the_circuit_again_when_trial_call_fails() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.GATEWAY_TIMEOUT);
+        ticker.advance(OPEN_DURATION);
+
+        // when
+        failTimes(1, HttpStatus.GATEWAY_TIMEOUT);
+
+        // then
+        assertThatThrownBy(() -> circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall))
+            .isInstanceOf(CcdUnavailableException.class)
+            .hasFieldOrPropertyWithValue("retryAfter", OPEN_DURATION);
+        assertThat(meterRegistry.get(CcdCircuitBreakers.OPENED_COUNTER).counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_let_another_trial_call_through_when_trial_call_ends_with_an_error() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.SERVICE_UNAVAILABLE);
+        ticker.advance(OPEN_DURATION);
+
+        // when
+        assertThatThrownBy(() -> circuitBreakers.call(JURISDICTION, CASE_TYPE, () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        // then
+        assertThat(circuitBreakers.call(JURISDICTION, CASE_TYPE, this::ccdCall)).isEqualTo("ok");
+        assertThat(state()).isZero();
+    }
+
+    @Test
+    public void should_keep_separate_circuits_for_each_case_type() {
+        // given
+        failTimes(FAILURE_THRESHOLD, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        // when
+        String otherCaseType = circuitBreakers.call(JURISDICTION, "other_case_type", this::ccdCall);
+        String anyCaseType = circuitBreakers.call(JURISDICTION, null, this::ccdCall);
+
+        // then
+        assertThat(otherCaseType).isEqualTo("ok");
+        assertThat(anyCaseType).isEqualTo("ok");
+    }
+
+    private void failTimes(int times, HttpStatus status) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> circuitBreakers.call(JURISDICTION, CASE_TYPE, () -> {
+                ccdCalls.incrementAndGet();
+                throw feignException(status);
+            })).isInstanceOf(FeignException.class);
+        }
+    }
+
+    private String ccdCall() {
+        ccdCalls.incrementAndGet();
+        return "ok";
+    }
+
+    private double state() {
+        return meterRegistry
+            .get(CcdCircuitBreakers.STATE_GAUGE)
+            .tag("jurisdiction", JURISDICTION.toLowerCase())
+            .tag("case_type", CASE_TYPE.toLowerCase())
+            .gauge()
+            .value();
+    }
+
+    private static FeignException feignException(HttpStatus status) {
+        return FeignException.errorStatus(
+            "methodKey",
+            Response
+                .builder()
+                .request(mock(Request.class))
+                .headers(Collections.emptyMap())
+                .status(status.value())
+                .reason(status.getReasonPhrase())
+                .build()
+        );
+    }
+
+    private static class MutableTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(Duration duration) {
+            nanos += duration.toNanos();
+        }
+    }
+}
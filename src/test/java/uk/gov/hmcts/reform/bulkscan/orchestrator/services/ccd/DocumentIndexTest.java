@@ -1,8 +1,10 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -11,16 +13,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import javax.validation.constraints.NotNull;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.Documents.getScannedDocuments;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.DocumentIndex.getScannedDocuments;
 
-class DocumentsTest {
+class DocumentIndexTest {
     private static final String SCANNED_DOCUMENTS = "scannedDocuments";
     private static final String DOCUMENT_NUMBER = "id";
 
@@ -58,13 +59,43 @@ class DocumentsTest {
     void findDuplicatesTest(CaseDetails theCase,
                             List<Map<String, Object>> exceptionRecords,
                             Set<Integer> duplicates) {
-        AtomicReference<Set<String>> result = new AtomicReference<>();
-        Documents.checkForDuplicatesOrElse(exceptionRecords, getScannedDocuments(theCase), result::set);
-
-        if (duplicates.isEmpty()) {
-            assertThat(result.get()).isNull();
-        } else {
-            assertThat(result.get()).isEqualTo(asStringSet(duplicates));
-        }
+        DocumentIndex index = DocumentIndex.of(exceptionRecords, getScannedDocuments(theCase));
+
+        assertThat(index.getDuplicates()).isEqualTo(asStringSet(duplicates));
+    }
+
+    @Test
+    @DisplayName("Should list exception record control numbers in document order.")
+    void exceptionDocumentNumbersTest() {
+        List<Map<String, Object>> exceptionRecords = ImmutableList.<Map<String, Object>>builder()
+            .addAll(createDcnList(3, 1))
+            .add(ImmutableMap.of(DOCUMENT_NUMBER, "no-control-number", "value", ImmutableMap.of()))
+            .build();
+
+        DocumentIndex index = DocumentIndex.of(exceptionRecords, createDcnList(1));
+
+        assertThat(index.getExceptionDocumentNumbers()).isEqualTo(ImmutableList.of("3", "1", ""));
+        assertThat(index.getDuplicates()).isEqualTo(ImmutableSet.of("1"));
+    }
+
+    @Test
+    @DisplayName("Should append exception record documents to the case documents.")
+    void mergedDocumentsTest() {
+        List<Map<String, Object>> existingDocuments = createDcnList(1, 2);
+        List<Map<String, Object>> exceptionRecords = createDcnList(3);
+
+        Map<String, Object> merged = DocumentIndex.of(exceptionRecords, existingDocuments).mergedDocuments();
+
+        assertThat(merged.get(SCANNED_DOCUMENTS)).isEqualTo(ImmutableList.builder()
+            .addAll(existingDocuments)
+            .addAll(exceptionRecords)
+            .build()
+        );
+    }
+
+    @Test
+    @DisplayName("Should read no scanned documents from a case without data.")
+    void scannedDocumentsOfEmptyCaseTest() {
+        assertThat(getScannedDocuments(CaseDetails.builder().build())).isEqualTo(ImmutableList.of());
     }
 }
@@ -1,16 +1,24 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.events;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.model.ccd.CaseData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticator;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadataCache;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdAuthenticatorFactory;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CcdCircuitBreakers;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.EnvelopeLedger;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger.LedgerStep;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
@@ -50,6 +58,11 @@ public class AbstractEventPublisherTest {
         String getEventSummary() {
             return EVENT_SUMMARY;
         }
+
+        @Override
+        LedgerStep getLedgerStep() {
+            return LedgerStep.DOCUMENTS_ATTACHED;
+        }
     };
 
     @Mock
@@ -58,6 +71,19 @@ public class AbstractEventPublisherTest {
     @Mock
     private CcdAuthenticatorFactory authenticatorFactory;
 
+    @Mock
+    private EnvelopeLedger ledger;
+
+    @Mock
+    private CaseMetadataCache caseMetadataCache;
+
+    @Spy
+    private ProcessingMetrics metrics =
+        new ProcessingMetrics(new SimpleMeterRegistry(), new JurisdictionToUserMapping());
+
+    @Spy
+    private CcdCircuitBreakers circuitBreakers = new CcdCircuitBreakers(new SimpleMeterRegistry(), 5, 30);
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -111,5 +137,9 @@ public class AbstractEventPublisherTest {
                 .ignoreWarning(false)
                 .build()
         );
+
+        // and
+        verify(ledger).recordCaseEvent(ENVELOPE.id, LedgerStep.DOCUMENTS_ATTACHED, ENVELOPE.caseRef);
+        verify(caseMetadataCache).invalidate(ENVELOPE.jurisdiction, ENVELOPE.caseRef);
     }
 }
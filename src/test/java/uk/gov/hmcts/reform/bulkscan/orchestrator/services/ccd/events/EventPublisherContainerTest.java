@@ -5,9 +5,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseRetriever;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadata;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.ccd.CaseMetadataCache;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
-import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
@@ -30,14 +32,11 @@ public class EventPublisherContainerTest {
     private CreateExceptionRecord createExceptionRecord;
 
     @Mock
-    private CaseRetriever caseRetriever;
+    private CaseMetadataCache caseMetadataCache;
 
     @Mock
     private Envelope envelope;
 
-    @Mock
-    private CaseDetails caseDetails;
-
     private EventPublisherContainer eventPublisherContainer;
 
     @Before
@@ -51,13 +50,13 @@ public class EventPublisherContainerTest {
     @Test
     public void should_call_AttachDocsToSupplementaryEvidence_for_supplementary_evidence_classification_when_case_exists() {
         // given
-        given(caseDetails.getCaseTypeId()).willReturn("someCaseTypeId");
-        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(caseDetails);
+        given(caseMetadataCache.get(JURSIDICTION, CASE_REF))
+            .willReturn(Optional.of(new CaseMetadata(1L, JURSIDICTION, "someCaseTypeId")));
 
         // when
         EventPublisher publisher = eventPublisherContainer.getPublisher(
             SUPPLEMENTARY_EVIDENCE,
-            () -> caseRetriever.retrieve(JURSIDICTION, CASE_REF)
+            () -> caseMetadataCache.get(JURSIDICTION, CASE_REF)
         );
         publisher.publish(envelope);
 
@@ -68,12 +67,12 @@ public class EventPublisherContainerTest {
     @Test
     public void should_call_CreateExceptionRecord_for_supplementary_evidence_classification_when_case_does_not_exist() {
         // given
-        given(caseRetriever.retrieve(JURSIDICTION, CASE_REF)).willReturn(null); // case not found
+        given(caseMetadataCache.get(JURSIDICTION, CASE_REF)).willReturn(Optional.empty()); // case not found
 
         // when
         EventPublisher publisher = eventPublisherContainer.getPublisher(
             SUPPLEMENTARY_EVIDENCE,
-            () -> caseRetriever.retrieve(JURSIDICTION, CASE_REF)
+            () -> caseMetadataCache.get(JURSIDICTION, CASE_REF)
         );
         publisher.publish(envelope);
 
@@ -86,7 +85,7 @@ public class EventPublisherContainerTest {
         // when
         EventPublisher eventPublisher = eventPublisherContainer.getPublisher(
             EXCEPTION,
-            () -> caseRetriever.retrieve(JURSIDICTION, CASE_REF)
+            () -> caseMetadataCache.get(JURSIDICTION, CASE_REF)
         );
         eventPublisher.publish(envelope);
 
@@ -94,7 +93,7 @@ public class EventPublisherContainerTest {
         verify(this.createExceptionRecord).publish(envelope);
 
         // and
-        verify(caseRetriever, never()).retrieve(JURSIDICTION, CASE_REF);
+        verify(caseMetadataCache, never()).get(JURSIDICTION, CASE_REF);
     }
 
     @Test
@@ -102,7 +101,7 @@ public class EventPublisherContainerTest {
         // when
         EventPublisher eventPublisher = eventPublisherContainer.getPublisher(
             NEW_APPLICATION,
-            () -> caseRetriever.retrieve(JURSIDICTION, CASE_REF)
+            () -> caseMetadataCache.get(JURSIDICTION, CASE_REF)
         );
         eventPublisher.publish(envelope);
 
@@ -110,7 +109,7 @@ public class EventPublisherContainerTest {
         verify(this.createExceptionRecord).publish(envelope);
 
         // and
-        verify(caseRetriever, never()).retrieve(any(), any());
+        verify(caseMetadataCache, never()).get(any(), any());
     }
 
 }
@@ -0,0 +1,196 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics.ProcessingMetrics;
+import uk.gov.hmcts.reform.idam.client.IdamClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.JURSIDICTION;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.PASSWORD;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_CREDS;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_DETAILS;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_NAME;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.SampleData.USER_TOKEN;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdamCachedClientTest {
+
+    private static final Duration REFRESH_BEFORE_EXPIRY = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_TOKEN_LIFETIME = Duration.ofHours(1);
+
+    @Mock
+    private IdamClient idamClient;
+    @Mock
+    private JurisdictionToUserMapping users;
+
+    private MutableClock clock;
+
+    private IdamCachedClient cachedClient;
+
+    @Before
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2019-02-01T10:00:00Z"));
+        cachedClient = new IdamCachedClient(
+            idamClient,
+            users,
+            Runnable::run,
+            new ProcessingMetrics(new SimpleMeterRegistry(), new JurisdictionToUserMapping()),
+            REFRESH_BEFORE_EXPIRY,
+            DEFAULT_TOKEN_LIFETIME,
+            clock
+        );
+
+        given(users.getUser(JURSIDICTION)).willReturn(USER_CREDS);
+        given(idamClient.getUserDetails(anyString())).willReturn(USER_DETAILS);
+    }
+
+    @Test
+    public void should_authenticate_once_and_reuse_the_token() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn(USER_TOKEN);
+
+        CachedIdamCredential first = cachedClient.getIdamCredentials(JURSIDICTION);
+        CachedIdamCredential second = cachedClient.getIdamCredentials(JURSIDICTION);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.accessToken).isEqualTo(USER_TOKEN);
+        assertThat(first.userDetails).isEqualTo(USER_DETAILS);
+        verify(idamClient, times(1)).authenticateUser(USER_NAME, PASSWORD);
+    }
+
+    @Test
+    public void should_read_expiry_from_the_token() {
+        Instant expiry = clock.instant().plus(Duration.ofHours(8));
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn(bearerToken(expiry));
+
+        CachedIdamCredential credential = cachedClient.getIdamCredentials(JURSIDICTION);
+
+        assertThat(credential.expiresAt).isEqualTo(expiry);
+    }
+
+    @Test
+    public void should_use_default_lifetime_when_token_expiry_cannot_be_read() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn(USER_TOKEN);
+
+        CachedIdamCredential credential = cachedClient.getIdamCredentials(JURSIDICTION);
+
+        assertThat(credential.expiresAt).isEqualTo(clock.instant().plus(DEFAULT_TOKEN_LIFETIME));
+    }
+
+    @Test
+    public void should_authenticate_again_when_token_has_expired() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn(USER_TOKEN);
+
+        cachedClient.getIdamCredentials(JURSIDICTION);
+        clock.advance(DEFAULT_TOKEN_LIFETIME);
+        cachedClient.getIdamCredentials(JURSIDICTION);
+
+        verify(idamClient, times(2)).authenticateUser(USER_NAME, PASSWORD);
+    }
+
+    @Test
+    public void should_refresh_token_before_it_expires() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn("token-1", "token-2");
+
+        cachedClient.getIdamCredentials(JURSIDICTION);
+        clock.advance(DEFAULT_TOKEN_LIFETIME.minus(REFRESH_BEFORE_EXPIRY));
+
+        // current token is still served while the new one is being fetched
+        assertThat(cachedClient.getIdamCredentials(JURSIDICTION).accessToken).isEqualTo("token-1");
+        assertThat(cachedClient.getIdamCredentials(JURSIDICTION).accessToken).isEqualTo("token-2");
+    }
+
+    @Test
+    public void should_authenticate_again_when_token_has_been_removed() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn(USER_TOKEN);
+
+        cachedClient.getIdamCredentials(JURSIDICTION);
+        cachedClient.removeAccessTokenFromCache(JURSIDICTION, USER_TOKEN);
+        cachedClient.getIdamCredentials(JURSIDICTION);
+
+        verify(idamClient, times(2)).authenticateUser(USER_NAME, PASSWORD);
+    }
+
+    @Test
+    public void should_keep_token_refreshed_after_the_rejected_one_was_served() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD)).willReturn("token-1", "token-2");
+
+        String rejectedToken = cachedClient.getIdamCredentials(JURSIDICTION).accessToken;
+        clock.advance(DEFAULT_TOKEN_LIFETIME.minus(REFRESH_BEFORE_EXPIRY));
+        // refreshed in the meantime by another caller
+        cachedClient.getIdamCredentials(JURSIDICTION);
+
+        cachedClient.removeAccessTokenFromCache(JURSIDICTION, rejectedToken);
+
+        assertThat(cachedClient.getIdamCredentials(JURSIDICTION).accessToken).isEqualTo("token-2");
+        verify(idamClient, times(2)).authenticateUser(USER_NAME, PASSWORD);
+    }
+
+    @Test
+    public void should_not_cache_failed_authentication() {
+        given(idamClient.authenticateUser(USER_NAME, PASSWORD))
+            .willThrow(new IllegalStateException("IDAM unavailable"))
+            .willReturn(USER_TOKEN);
+
+        assertThatThrownBy(() -> cachedClient.getIdamCredentials(JURSIDICTION))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("IDAM unavailable");
+
+        assertThat(cachedClient.getIdamCredentials(JURSIDICTION).accessToken).isEqualTo(USER_TOKEN);
+    }
+
+    private static String bearerToken(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(
+            ("{\"exp\":" + expiry.getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8)
+        );
+
+        return "Bearer " + header + "." + claims + ".signature";
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
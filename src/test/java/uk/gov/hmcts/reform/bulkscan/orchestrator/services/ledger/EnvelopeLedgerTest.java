@@ -0,0 +1,107 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+public class EnvelopeLedgerTest {
+
+    private static final Instant NOW = Instant.parse("2019-03-01T10:00:00Z");
+
+    private InMemoryLedgerStore store;
+
+    private EnvelopeLedger ledger;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryLedgerStore();
+        ledger = new EnvelopeLedger(store, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void should_find_recorded_case_event() {
+        // given
+        ledger.recordCaseEvent("envelope1", LedgerStep.EXCEPTION_RECORD_CREATED, "123");
+
+        // when
+        CompletedStep caseEvent = ledger.findCaseEvent("envelope1").orElse(null);
+
+        // then
+        assertThat(caseEvent).isNotNull();
+        assertThat(caseEvent.step).isEqualTo(LedgerStep.EXCEPTION_RECORD_CREATED);
+        assertThat(caseEvent.caseId).isEqualTo("123");
+        assertThat(caseEvent.completedAt).isEqualTo(NOW);
+
+        // and
+        assertThat(ledger.findCaseEvent("envelope2")).isEmpty();
+        assertThat(ledger.isNotificationSent("envelope1")).isFalse();
+    }
+
+    @Test
+    public void should_keep_the_first_record_of_a_step() {
+        // given
+        ledger.recordCaseEvent("envelope1", LedgerStep.DOCUMENTS_ATTACHED, "123");
+
+        // when
+        ledger.recordCaseEvent("envelope1", LedgerStep.DOCUMENTS_ATTACHED, "456");
+
+        // then
+        assertThat(store.findSteps("envelope1"))
+            .extracting(step -> step.caseId)
+            .containsExactly("123");
+    }
+
+    @Test
+    public void should_record_notification_sent() {
+        // when
+        ledger.recordNotificationSent("envelope1");
+
+        // then
+        assertThat(ledger.isNotificationSent("envelope1")).isTrue();
+        assertThat(ledger.findCaseEvent("envelope1")).isEmpty();
+    }
+
+    @Test
+    public void should_remove_entries_older_than_retention() {
+        // given
+        store.save("old", new CompletedStep(LedgerStep.NOTIFICATION_SENT, null, NOW.minus(Duration.ofHours(2))));
+        store.save("recent", new CompletedStep(LedgerStep.NOTIFICATION_SENT, null, NOW.minus(Duration.ofMinutes(5))));
+
+        // when
+        ledger.removeExpiredEntries();
+
+        // then
+        assertThat(ledger.isNotificationSent("old")).isFalse();
+        assertThat(ledger.isNotificationSent("recent")).isTrue();
+    }
+
+    @Test
+    public void should_fail_when_step_cannot_be_recorded() {
+        // given
+        LedgerStore failingStore = mock(LedgerStore.class);
+        willThrow(new IllegalStateException("store not available")).given(failingStore).save(any(), any());
+
+        EnvelopeLedger ledgerWithFailingStore =
+            new EnvelopeLedger(failingStore, Duration.ofHours(1), Clock.systemUTC());
+
+        // when
+        assertThatThrownBy(() -> ledgerWithFailingStore.recordNotificationSent("envelope1"))
+            .isInstanceOf(LedgerException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void should_not_be_shared_when_entries_are_kept_in_memory() {
+        assertThat(ledger.isShared()).isFalse();
+    }
+}
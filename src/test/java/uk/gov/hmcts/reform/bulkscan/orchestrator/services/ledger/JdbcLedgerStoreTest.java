@@ -0,0 +1,98 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.ledger;
+
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class JdbcLedgerStoreTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private Flyway flyway;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcLedgerStore store;
+
+    @Before
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:ledger-test;DB_CLOSE_DELAY=-1", "sa", "");
+
+        // schema comes from the application's migrations
+        flyway = Flyway.configure().dataSource(dataSource).load();
+        flyway.migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        store = new JdbcLedgerStore(jdbcTemplate, false);
+    }
+
+    @After
+    public void tearDown() {
+        flyway.clean();
+    }
+
+    @Test
+    public void should_save_and_find_steps_of_envelope() {
+        // given
+        store.save("envelope1", new CompletedStep(LedgerStep.EXCEPTION_RECORD_CREATED, "123", NOW));
+        store.save("envelope1", new CompletedStep(LedgerStep.NOTIFICATION_SENT, null, NOW));
+        store.save("envelope2", new CompletedStep(LedgerStep.DOCUMENTS_ATTACHED, "456", NOW));
+
+        // when
+        List<CompletedStep> steps = store.findSteps("envelope1");
+
+        // then
+        assertThat(steps)
+            .extracting(step -> step.step, step -> step.caseId, step -> step.completedAt)
+            .containsExactlyInAnyOrder(
+                tuple(LedgerStep.EXCEPTION_RECORD_CREATED, "123", NOW),
+                tuple(LedgerStep.NOTIFICATION_SENT, null, NOW)
+            );
+    }
+
+    @Test
+    public void should_be_shared_only_when_configured_so() {
+        assertThat(store.isShared()).isFalse();
+        assertThat(new JdbcLedgerStore(jdbcTemplate, true).isShared()).isTrue();
+    }
+
+    @Test
+    public void should_ignore_step_saved_again() {
+        // given
+        store.save("envelope1", new CompletedStep(LedgerStep.DOCUMENTS_ATTACHED, "123", NOW));
+
+        // when
+        store.save("envelope1", new CompletedStep(LedgerStep.DOCUMENTS_ATTACHED, "456", NOW));
+
+        // then
+        assertThat(store.findSteps("envelope1"))
+            .extracting(step -> step.caseId)
+            .containsExactly("123");
+    }
+
+    @Test
+    public void should_delete_steps_completed_before_given_time() {
+        // given
+        store.save("old", new CompletedStep(LedgerStep.NOTIFICATION_SENT, null, NOW.minus(Duration.ofHours(2))));
+        store.save("recent", new CompletedStep(LedgerStep.NOTIFICATION_SENT, null, NOW));
+
+        // when
+        store.deleteCompletedBefore(NOW.minus(Duration.ofHours(1)));
+
+        // then
+        assertThat(store.findSteps("old")).isEmpty();
+        assertThat(store.findSteps("recent")).hasSize(1);
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.idam.JurisdictionToUserMapping;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+
+import java.time.Instant;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.handler.MessageProcessingResultType.SUCCESS;
+
+public class ProcessingMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProcessingMetrics metrics;
+
+    @Before
+    public void setUp() {
+        JurisdictionToUserMapping users = new JurisdictionToUserMapping();
+        users.setUsers(ImmutableMap.of("BULKSCAN", ImmutableMap.of("username", "user", "password", "pass")));
+
+        metrics = new ProcessingMetrics(meterRegistry, users);
+    }
+
+    @Test
+    public void should_tag_result_with_configured_jurisdiction() {
+        // when
+        metrics.countResult(SUCCESS, envelope("BULKSCAN"), "publisher");
+
+        // then
+        assertThat(resultCount("bulkscan")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_results_of_jurisdictions_not_configured_as_unknown() {
+        // when
+        metrics.countResult(SUCCESS, envelope("first-unexpected"), "publisher");
+        metrics.countResult(SUCCESS, envelope("second-unexpected"), "publisher");
+
+        // then
+        assertThat(resultCount(ProcessingMetrics.UNKNOWN)).isEqualTo(2);
+        assertThat(meterRegistry.find(ProcessingMetrics.RESULT_COUNTER).counters()).hasSize(1);
+    }
+
+    private double resultCount(String jurisdiction) {
+        return meterRegistry
+            .get(ProcessingMetrics.RESULT_COUNTER)
+            .tag("jurisdiction", jurisdiction)
+            .counter()
+            .count();
+    }
+
+    private static Envelope envelope(String jurisdiction) {
+        return new Envelope(
+            "id",
+            "case-ref",
+            "po-box",
+            jurisdiction,
+            "file.zip",
+            Instant.now(),
+            Instant.now(),
+            Classification.SUPPLEMENTARY_EVIDENCE,
+            emptyList(),
+            null
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 4, 8, Duration.ofSeconds(5), 0.5);
+
+    @Test
+    public void should_not_give_out_more_slots_than_the_limit() {
+        // when
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        // then
+        assertThat(limit.tryAcquire()).isFalse();
+
+        // and when
+        limit.release();
+
+        // then
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void should_raise_limit_while_publishing_is_fast_up_to_the_maximum() {
+        // given
+        acquire(4);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(FAST, false);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    public void should_not_raise_limit_when_it_is_not_used() {
+        // given
+        acquire(1);
+
+        // when
+        limit.onSample(FAST, false);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void should_cut_limit_when_publishing_is_slow_or_fails_down_to_the_minimum() {
+        // when
+        limit.onSample(SLOW, false);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(2);
+
+        // and when
+        limit.onSample(FAST, true);
+        limit.onSample(FAST, true);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_expose_limit_and_in_flight_count_as_metrics() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimit limitWithMetrics = new AdaptiveConcurrencyLimit(registry, 1, 3, 10, 10, 5000, 0.9);
+
+        // when
+        limitWithMetrics.tryAcquire();
+
+        // then
+        assertThat(registry.get(AdaptiveConcurrencyLimit.LIMIT_GAUGE).gauge().value()).isEqualTo(3);
+        assertThat(registry.get(AdaptiveConcurrencyLimit.IN_FLIGHT_GAUGE).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_raise_limit_above_the_number_of_envelopes_a_lane_lets_in() {
+        // given lanes let in fewer envelopes than the queue client hands over
+        AdaptiveConcurrencyLimit laneBoundLimit = new AdaptiveConcurrencyLimit(
+            new SimpleMeterRegistry(), 1, 4, 16, 8, 5000, 0.5
+        );
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            laneBoundLimit.tryAcquire();
+            laneBoundLimit.onSample(FAST, false);
+        }
+
+        // then
+        assertThat(laneBoundLimit.getLimit()).isEqualTo(8);
+    }
+
+    private void acquire(int slots) {
+        for (int i = 0; i < slots; i++) {
+            limit.tryAcquire();
+        }
+    }
+}
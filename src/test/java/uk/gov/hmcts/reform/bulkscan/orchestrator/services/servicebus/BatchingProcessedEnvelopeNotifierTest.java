@@ -0,0 +1,132 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.QueueClient;
+import com.microsoft.azure.servicebus.primitives.ServiceBusException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchingProcessedEnvelopeNotifierTest {
+
+    private static final long MAX_DELAY_MILLIS = 200;
+
+    @Mock
+    private QueueClient queueClient;
+
+    private ScheduledExecutorService flushScheduler;
+
+    private BatchingProcessedEnvelopeNotifier notifier;
+
+    @Before
+    public void setUp() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor();
+        notifier = new BatchingProcessedEnvelopeNotifier(
+            queueClient,
+            3,
+            MAX_DELAY_MILLIS,
+            flushScheduler
+        );
+    }
+
+    @After
+    public void tearDown() {
+        flushScheduler.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_send_notifications_in_one_batch_when_batch_is_full() throws Exception {
+        // given
+        given(queueClient.sendBatchAsync(anyCollection())).willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        CompletableFuture<Void> first = notifier.notifyAsync("id1");
+        CompletableFuture<Void> second = notifier.notifyAsync("id2");
+        CompletableFuture<Void> third = notifier.notifyAsync("id3");
+
+        CompletableFuture.allOf(first, second, third).get(MAX_DELAY_MILLIS / 2, TimeUnit.MILLISECONDS);
+
+        // then
+        ArgumentCaptor<Collection<IMessage>> batchCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(queueClient).sendBatchAsync(batchCaptor.capture());
+
+        assertThat(batchCaptor.getValue())
+            .extracting(IMessage::getMessageId)
+            .containsExactly("id1", "id2", "id3");
+    }
+
+    @Test
+    public void should_send_incomplete_batch_after_max_delay() throws Exception {
+        // given
+        given(queueClient.sendBatchAsync(anyCollection())).willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        CompletableFuture<Void> result = notifier.notifyAsync("id1");
+
+        // then
+        assertThat(result.isDone()).isFalse();
+
+        result.get(MAX_DELAY_MILLIS * 5, TimeUnit.MILLISECONDS);
+        verify(queueClient, timeout(MAX_DELAY_MILLIS)).sendBatchAsync(anyCollection());
+    }
+
+    @Test
+    public void should_not_complete_notification_until_batch_has_been_sent() throws Exception {
+        // given
+        CompletableFuture<Void> sending = new CompletableFuture<>();
+        given(queueClient.sendBatchAsync(anyCollection())).willReturn(sending);
+
+        // when
+        CompletableFuture<Void> result = notifier.notifyAsync("id1");
+        verify(queueClient, timeout(MAX_DELAY_MILLIS * 5)).sendBatchAsync(anyCollection());
+
+        // then
+        assertThat(result.isDone()).isFalse();
+
+        // and when
+        sending.complete(null);
+
+        // then
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.isCompletedExceptionally()).isFalse();
+    }
+
+    @Test
+    public void should_fail_all_notifications_of_the_batch_when_sending_fails() {
+        // given
+        ServiceBusException sendingFailure = new ServiceBusException(true, "test exception");
+        CompletableFuture<Void> sending = new CompletableFuture<>();
+        sending.completeExceptionally(sendingFailure);
+        given(queueClient.sendBatchAsync(any())).willReturn(sending);
+
+        // when
+        notifier.notifyAsync("id1");
+        notifier.notifyAsync("id2");
+
+        // then
+        assertThatThrownBy(() -> notifier.notify("id3"))
+            .isInstanceOf(NotificationSendingException.class)
+            .hasMessage("An error occurred when trying to send notification about successfully processed envelope")
+            .hasCause(sendingFailure);
+    }
+}
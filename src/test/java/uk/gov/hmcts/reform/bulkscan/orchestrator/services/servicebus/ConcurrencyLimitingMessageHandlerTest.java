@@ -0,0 +1,163 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+import com.microsoft.azure.servicebus.Message;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConcurrencyLimitingMessageHandlerTest {
+
+    @Mock
+    private IMessageHandler handler;
+
+    private final Map<IMessage, CompletableFuture<Void>> processing = new HashMap<>();
+
+    private ConcurrencyLimitingMessageHandler limitingHandler;
+
+    @Before
+    public void setUp() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, 2, Duration.ofSeconds(5), 0.9);
+        limitingHandler = new ConcurrencyLimitingMessageHandler(handler, limit);
+
+        lenient().when(handler.onMessageAsync(any())).thenAnswer(invocation -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            processing.put(invocation.getArgument(0), future);
+            return future;
+        });
+    }
+
+    @Test
+    public void should_hold_messages_above_the_limit_until_processing_of_another_one_finishes() {
+        // given
+        IMessage first = mock(IMessage.class);
+        IMessage second = mock(IMessage.class);
+        IMessage third = mock(IMessage.class);
+
+        // when
+        CompletableFuture<Void> firstResult = limitingHandler.onMessageAsync(first);
+        limitingHandler.onMessageAsync(second);
+        CompletableFuture<Void> thirdResult = limitingHandler.onMessageAsync(third);
+
+        // then
+        verify(handler).onMessageAsync(first);
+        verify(handler).onMessageAsync(second);
+        verify(handler, never()).onMessageAsync(third);
+
+        // and when
+        processing.get(first).complete(null);
+
+        // then
+        assertThat(firstResult).isCompleted();
+        verify(handler).onMessageAsync(third);
+        assertThat(thirdResult).isNotDone();
+
+        // and when
+        processing.get(third).complete(null);
+
+        // then
+        assertThat(thirdResult).isCompleted();
+    }
+
+    @Test
+    public void should_release_the_slot_when_handler_fails() {
+        // given
+        IMessage failing = mock(IMessage.class);
+        IMessage next = mock(IMessage.class);
+        IMessage last = mock(IMessage.class);
+
+        CompletableFuture<Void> failingResult = limitingHandler.onMessageAsync(failing);
+        limitingHandler.onMessageAsync(next);
+        limitingHandler.onMessageAsync(last);
+
+        // when
+        processing.get(failing).completeExceptionally(new IllegalStateException("failed"));
+
+        // then
+        assertThat(failingResult).isCompletedExceptionally();
+        verify(handler).onMessageAsync(last);
+    }
+
+    @Test
+    public void should_process_every_message_when_received_and_finished_concurrently() throws Exception {
+        // given
+        int readerCount = 8;
+        int messagesPerReader = 2_000;
+
+        ExecutorService readers = Executors.newFixedThreadPool(readerCount);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+
+        given(handler.onMessageAsync(any())).willAnswer(invocation -> CompletableFuture.runAsync(() -> { }, workers));
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        CountDownLatch readersReady = new CountDownLatch(readerCount);
+        CountDownLatch go = new CountDownLatch(1);
+
+        try {
+            // when
+            List<CompletableFuture<List<CompletableFuture<Void>>>> readerResults = new ArrayList<>();
+
+            for (int i = 0; i < readerCount; i++) {
+                readerResults.add(CompletableFuture.supplyAsync(() -> {
+                    List<CompletableFuture<Void>> received = new ArrayList<>();
+                    readersReady.countDown();
+                    awaitQuietly(go);
+
+                    for (int j = 0; j < messagesPerReader; j++) {
+                        received.add(limitingHandler.onMessageAsync(new Message("body")));
+                    }
+
+                    return received;
+                }, readers));
+            }
+
+            readersReady.await();
+            go.countDown();
+
+            for (CompletableFuture<List<CompletableFuture<Void>>> readerResult : readerResults) {
+                results.addAll(readerResult.get(30, TimeUnit.SECONDS));
+            }
+
+            // then
+            CompletableFuture
+                .allOf(results.toArray(new CompletableFuture<?>[0]))
+                .get(30, TimeUnit.SECONDS);
+
+            assertThat(results).hasSize(readerCount * messagesPerReader);
+        } finally {
+            readers.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
-import com.google.common.collect.ImmutableList;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -11,10 +10,10 @@ import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.exceptions.
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Classification;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Document;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.Envelope;
+import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrData;
 import uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus.model.OcrDataField;
 
 import java.time.Instant;
-import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,7 +55,7 @@ public class EnvelopeParserTest {
                     "doc2_url"
                 )
             ),
-            ImmutableList.of(
+            SampleData.ocrData(
                 new OcrDataField("key1", "value1"),
                 new OcrDataField("key2", "value2"),
                 new OcrDataField("key0", "value0")
@@ -190,6 +189,235 @@ public class EnvelopeParserTest {
         assertThat(exc).isInstanceOf(InvalidMessageException.class);
     }
 
+    @Test
+    public void should_reject_unknown_classification_before_reading_documents() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("classification", "unknown_classification")
+                .put("documents", new JSONArray().put(new JSONObject().put("invalid", "document")))
+                .toString();
+
+        // when
+        Throwable exc = catchThrowable(() -> EnvelopeParser.parse(json.getBytes()));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidMessageException.class)
+            .hasMessage("Invalid classification: unknown_classification");
+    }
+
+    @Test
+    public void should_reject_envelope_without_case_ref() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("po_box", envelope.poBox)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", envelope.zipFileName)
+                .put("delivery_date", envelope.deliveryDate)
+                .put("opening_date", envelope.openingDate)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .put("documents", new JSONArray().put(toJson(envelope.documents.get(0))))
+                .toString();
+
+        // when
+        Throwable exc = catchThrowable(() -> EnvelopeParser.parse(json.getBytes()));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidMessageException.class)
+            .hasMessage("Missing required field: case_ref");
+    }
+
+    @Test
+    public void should_parse_envelope_with_null_case_ref() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", JSONObject.NULL)
+                .put("po_box", envelope.poBox)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", envelope.zipFileName)
+                .put("delivery_date", envelope.deliveryDate)
+                .put("opening_date", envelope.openingDate)
+                .put("classification", Classification.EXCEPTION.toString().toLowerCase())
+                .put("documents", new JSONArray().put(toJson(envelope.documents.get(0))))
+                .toString();
+
+        // when
+        Envelope result = EnvelopeParser.parse(json.getBytes());
+
+        // then
+        assertThat(result.caseRef).isNull();
+        assertThat(result.classification).isEqualTo(Classification.EXCEPTION);
+    }
+
+    @Test
+    public void should_parse_envelope_with_explicit_nulls_in_required_fields() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("po_box", JSONObject.NULL)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", JSONObject.NULL)
+                .put("delivery_date", JSONObject.NULL)
+                .put("opening_date", JSONObject.NULL)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .put("documents", JSONObject.NULL)
+                .toString();
+
+        // when
+        Envelope result = EnvelopeParser.parse(json.getBytes());
+
+        // then
+        assertThat(result.id).isEqualTo(envelope.id);
+        assertThat(result.poBox).isNull();
+        assertThat(result.zipFileName).isNull();
+        assertThat(result.deliveryDate).isNull();
+        assertThat(result.openingDate).isNull();
+        assertThat(result.documents).isNull();
+    }
+
+    @Test
+    public void should_reject_envelope_without_documents() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("po_box", envelope.poBox)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", envelope.zipFileName)
+                .put("delivery_date", envelope.deliveryDate)
+                .put("opening_date", envelope.openingDate)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .toString();
+
+        // when
+        Throwable exc = catchThrowable(() -> EnvelopeParser.parse(json.getBytes()));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidMessageException.class)
+            .hasMessage("Missing required field: documents");
+    }
+
+    @Test
+    public void should_reject_envelope_with_header_field_of_wrong_type() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("jurisdiction", new JSONObject().put("name", envelope.jurisdiction))
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .toString();
+
+        // when
+        Throwable exc = catchThrowable(() -> EnvelopeParser.parse(json.getBytes()));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidMessageException.class)
+            .hasMessage("Field jurisdiction must not be an object or array");
+    }
+
+    @Test
+    public void should_parse_envelope_without_ocr_data() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("po_box", envelope.poBox)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", envelope.zipFileName)
+                .put("delivery_date", envelope.deliveryDate)
+                .put("opening_date", envelope.openingDate)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .put("documents", new JSONArray()
+                    .put(toJson(envelope.documents.get(0)))
+                    .put(toJson(envelope.documents.get(1)))
+                )
+                .toString();
+
+        // when
+        Envelope result = EnvelopeParser.parse(json.getBytes());
+
+        // then
+        assertThat(result.ocrData).isNull();
+        assertThat(result.documents).hasSize(2);
+    }
+
+    @Test
+    public void should_keep_ocr_data_unparsed_until_it_is_read() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("po_box", envelope.poBox)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("zip_file_name", envelope.zipFileName)
+                .put("delivery_date", envelope.deliveryDate)
+                .put("opening_date", envelope.openingDate)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .put("ocr_data", new JSONArray()
+                    .put(new JSONObject().put("metadata_field_name", "text").put("metadata_field_value", "abc"))
+                    .put(new JSONObject().put("metadata_field_name", "number").put("metadata_field_value", 12))
+                    .put(new JSONObject().put("metadata_field_name", "empty"))
+                )
+                .put("documents", new JSONArray().put(toJson(envelope.documents.get(0))))
+                .toString();
+
+        // when
+        Envelope result = EnvelopeParser.parse(json.getBytes());
+
+        // then
+        assertThat(result.ocrData.size()).isEqualTo(3);
+        assertThat(result.ocrData.getFields())
+            .extracting(field -> tuple(field.name, field.value))
+            .containsExactly(
+                tuple("text", "abc"),
+                tuple("number", "12"),
+                tuple("empty", null)
+            );
+    }
+
+    @Test
+    public void should_reject_ocr_data_with_field_value_of_wrong_type() throws Exception {
+        // given
+        String json =
+            new JSONObject()
+                .put("id", envelope.id)
+                .put("case_ref", envelope.caseRef)
+                .put("jurisdiction", envelope.jurisdiction)
+                .put("classification", envelope.classification.toString().toLowerCase())
+                .put("ocr_data", new JSONArray()
+                    .put(new JSONObject()
+                        .put("metadata_field_name", "field")
+                        .put("metadata_field_value", new JSONArray().put("a"))
+                    )
+                )
+                .toString();
+
+        // when
+        Throwable exc = catchThrowable(() -> EnvelopeParser.parse(json.getBytes()));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidMessageException.class)
+            .hasMessage("Field metadata_field_value must not be an object or array");
+    }
+
     @Test
     public void can_parse_example_json() {
         // given
@@ -226,11 +454,11 @@ public class EnvelopeParserTest {
             .put("url", doc.url);
     }
 
-    private JSONArray toOcrJson(List<OcrDataField> ocrDataFields) throws JSONException {
+    private JSONArray toOcrJson(OcrData ocrData) throws JSONException {
         JSONArray ocrJson = new JSONArray();
         JSONObject ocrDataEntry;
 
-        for (OcrDataField ocrField : ocrDataFields) {
+        for (OcrDataField ocrField : ocrData.getFields()) {
             ocrDataEntry = new JSONObject();
             ocrDataEntry.put("metadata_field_name", ocrField.name);
             ocrDataEntry.put("metadata_field_value", ocrField.value);
@@ -0,0 +1,61 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageHandler;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LockRenewingMessageHandlerTest {
+
+    @Mock
+    private IMessageHandler handler;
+
+    @Mock
+    private MessageLockRenewer lockRenewer;
+
+    @Mock
+    private IMessage message;
+
+    @Test
+    public void should_renew_lock_until_handler_is_done_with_the_message() {
+        // given
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        given(handler.onMessageAsync(message)).willReturn(processing);
+
+        // when
+        new LockRenewingMessageHandler(handler, lockRenewer).onMessageAsync(message);
+
+        // then
+        verify(lockRenewer).start(message);
+        verify(lockRenewer, never()).stop(message);
+
+        // and when
+        processing.complete(null);
+
+        // then
+        verify(lockRenewer).stop(message);
+    }
+
+    @Test
+    public void should_stop_renewing_lock_when_handler_throws() {
+        // given
+        given(handler.onMessageAsync(message)).willThrow(new IllegalStateException("failed"));
+
+        // when
+        assertThatThrownBy(() -> new LockRenewingMessageHandler(handler, lockRenewer).onMessageAsync(message))
+            .isInstanceOf(IllegalStateException.class);
+
+        // then
+        verify(lockRenewer).stop(message);
+    }
+}
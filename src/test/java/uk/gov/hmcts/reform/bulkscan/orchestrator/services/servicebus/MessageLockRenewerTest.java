@@ -0,0 +1,234 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.primitives.MessageLockLostException;
+import com.microsoft.azure.servicebus.primitives.ServiceBusException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MessageLockRenewerTest {
+
+    private static final Instant NOW = Instant.parse("2019-01-01T12:00:00Z");
+
+    @Mock
+    private IMessageOperations messageOperations;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> renewalTask;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private IMessage message;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MessageLockRenewer lockRenewer;
+
+    @Before
+    public void setUp() {
+        lockRenewer = new MessageLockRenewer(
+            messageOperations,
+            scheduler,
+            meterRegistry,
+            Duration.ofSeconds(10),
+            Duration.ofMinutes(5),
+            clock
+        );
+
+        willReturn(renewalTask).given(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        given(message.getLockToken()).willReturn(UUID.randomUUID());
+    }
+
+    @Test
+    public void should_renew_lock_at_configured_interval_until_stopped() throws Exception {
+        // given
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(10));
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+
+        // then
+        verify(scheduler).scheduleWithFixedDelay(any(), eq(10_000L), eq(10_000L), eq(TimeUnit.MILLISECONDS));
+        verify(messageOperations).renewLock(message);
+        assertThat(lockRenewer.isLockLost(message)).isFalse();
+        assertThat(meterRegistry.get(MessageLockRenewer.RENEWED_COUNTER).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MessageLockRenewer.HELD_GAUGE).gauge().value()).isEqualTo(1);
+
+        // and when
+        lockRenewer.stop(message);
+
+        // then
+        verify(renewalTask).cancel(false);
+        assertThat(meterRegistry.get(MessageLockRenewer.HELD_GAUGE).gauge().value()).isZero();
+    }
+
+    @Test
+    public void should_report_lock_as_lost_when_renewal_fails() throws Exception {
+        // given
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(10));
+        willThrow(new MessageLockLostException("lock lost")).given(messageOperations).renewLock(message);
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+
+        // then
+        assertThat(lockRenewer.isLockLost(message)).isTrue();
+        verify(renewalTask).cancel(false);
+        assertThat(lostCount("renewal-failed")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_retry_failed_renewal_while_lock_is_still_held() throws Exception {
+        // given
+        given(message.getLockedUntilUtc()).willReturn(NOW.plusSeconds(30));
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(10));
+        given(messageOperations.renewLock(message))
+            .willThrow(new ServiceBusException(true, "temporary failure"))
+            .willReturn(NOW.plusSeconds(50));
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+
+        // then
+        assertThat(lockRenewer.isLockLost(message)).isFalse();
+        verify(renewalTask, never()).cancel(false);
+
+        // and when
+        renewalTask().run();
+
+        // then
+        verify(messageOperations, times(2)).renewLock(message);
+        assertThat(lockRenewer.isLockLost(message)).isFalse();
+        assertThat(meterRegistry.get(MessageLockRenewer.RENEWED_COUNTER).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_report_lock_as_lost_when_renewal_keeps_failing_until_lock_expires() throws Exception {
+        // given
+        given(message.getLockedUntilUtc()).willReturn(NOW.plusSeconds(30));
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(10), NOW.plusSeconds(10), NOW.plusSeconds(30));
+        willThrow(new ServiceBusException(true, "temporary failure")).given(messageOperations).renewLock(message);
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+        renewalTask().run();
+
+        // then
+        assertThat(lockRenewer.isLockLost(message)).isTrue();
+        verify(renewalTask).cancel(false);
+        assertThat(lostCount("lock-expired")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_report_lock_as_lost_when_max_duration_is_exceeded() throws Exception {
+        // given
+        given(clock.instant()).willReturn(NOW, NOW.plus(Duration.ofMinutes(5)).plusSeconds(1));
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+
+        // then
+        verify(messageOperations, never()).renewLock(any());
+        assertThat(lockRenewer.isLockLost(message)).isTrue();
+        assertThat(lostCount("max-duration-exceeded")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_report_lock_as_lost_when_client_holding_it_has_not_renewed_it_in_time() throws Exception {
+        // given
+        given(message.getLockedUntilUtc()).willReturn(NOW.plusSeconds(30));
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(30));
+        given(messageOperations.renewLock(message)).willReturn(NOW.plusSeconds(30));
+
+        // when
+        lockRenewer.start(message);
+        renewalTask().run();
+
+        // then
+        assertThat(lockRenewer.isLockLost(message)).isTrue();
+        verify(renewalTask).cancel(false);
+        assertThat(lostCount("lock-expired")).isEqualTo(1);
+        assertThat(meterRegistry.get(MessageLockRenewer.RENEWED_COUNTER).counter().count()).isZero();
+    }
+
+    @Test
+    public void should_cancel_renewal_when_stopped_while_it_is_being_started() throws Exception {
+        // given
+        given(clock.instant()).willReturn(NOW);
+        CountDownLatch scheduling = new CountDownLatch(1);
+        CountDownLatch scheduled = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            scheduling.countDown();
+            scheduled.await();
+            return renewalTask;
+        }).given(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when
+            Future<?> start = executor.submit(() -> lockRenewer.start(message));
+            scheduling.await();
+            Future<?> stop = executor.submit(() -> lockRenewer.stop(message));
+            scheduled.countDown();
+
+            // then
+            start.get(5, TimeUnit.SECONDS);
+            stop.get(5, TimeUnit.SECONDS);
+            verify(renewalTask).cancel(false);
+            assertThat(meterRegistry.get(MessageLockRenewer.HELD_GAUGE).gauge().value()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Runnable renewalTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(task.capture(), anyLong(), anyLong(), any());
+        return task.getValue();
+    }
+
+    private double lostCount(String reason) {
+        return meterRegistry.get(MessageLockRenewer.LOST_COUNTER).tag("reason", reason).counter().count();
+    }
+}
@@ -1,18 +1,31 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.azure.servicebus.IMessage;
+import com.microsoft.azure.servicebus.IMessageReceiver;
+import com.microsoft.azure.servicebus.Message;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -22,11 +35,14 @@ public class MessageOperationsTest {
     @Mock
     private QueueClient queueClient;
 
+    @Mock
+    private IMessageReceiver receiver;
+
     private MessageOperations messageOperations;
 
     @Before
     public void setUp() {
-        messageOperations = new MessageOperations(queueClient);
+        messageOperations = new MessageOperations(queueClient, receiver, false);
     }
 
     @Test
@@ -70,4 +86,102 @@ public class MessageOperationsTest {
             messageOperations.deadLetter(UUID.randomUUID(), "reason", "description")
         ).isSameAs(exceptionToThrow);
     }
+
+    @Test
+    public void scheduleRedelivery_should_schedule_copy_of_the_message_with_redelivery_count() throws Exception {
+        Message original = new Message("body");
+        original.setContentType("application/json");
+        original.setProperties(ImmutableMap.of("some_property", "value"));
+        Instant deliveryTime = Instant.now().plusSeconds(10);
+        given(queueClient.scheduleMessage(any(), eq(deliveryTime))).willReturn(42L);
+
+        assertThat(messageOperations.scheduleRedelivery(original, 2, deliveryTime)).isEqualTo(42L);
+
+        ArgumentCaptor<IMessage> copy = ArgumentCaptor.forClass(IMessage.class);
+        verify(queueClient).scheduleMessage(copy.capture(), eq(deliveryTime));
+        verifyNoMoreInteractions(queueClient);
+
+        assertThat(copy.getValue().getBody()).isEqualTo(original.getBody());
+        assertThat(copy.getValue().getContentType()).isEqualTo("application/json");
+        assertThat(copy.getValue().getMessageId()).isNotEqualTo(original.getMessageId());
+        assertThat(copy.getValue().getProperties()).containsOnly(
+            entry("some_property", "value"),
+            entry(RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY, "2")
+        );
+    }
+
+    @Test
+    public void cancelScheduledRedelivery_should_call_queue_client() throws Exception {
+        messageOperations.cancelScheduledRedelivery(42L);
+
+        verify(queueClient).cancelScheduledMessage(42L);
+    }
+
+    @Test
+    public void renewLock_should_read_lock_renewed_by_queue_client() throws Exception {
+        IMessage message = mock(IMessage.class);
+        Instant lockedUntil = Instant.now().plusSeconds(30);
+        given(message.getLockedUntilUtc()).willReturn(lockedUntil);
+
+        assertThat(messageOperations.renewLock(message)).isEqualTo(lockedUntil);
+        verifyNoMoreInteractions(receiver);
+    }
+
+    @Test
+    public void renewLock_should_call_receiver_in_batch_receive_mode() throws Exception {
+        MessageOperations batchMessageOperations = new MessageOperations(queueClient, receiver, true);
+        IMessage message = new Message("body");
+        Instant lockedUntil = Instant.now().plusSeconds(30);
+        given(receiver.renewMessageLock(message)).willReturn(lockedUntil);
+
+        assertThat(batchMessageOperations.renewLock(message)).isEqualTo(lockedUntil);
+        verifyNoMoreInteractions(queueClient);
+    }
+
+    @Test
+    public void completeAll_should_complete_every_message() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        given(queueClient.completeAsync(any())).willReturn(CompletableFuture.completedFuture(null));
+
+        messageOperations.completeAll(ImmutableList.of(first, second));
+
+        verify(queueClient).completeAsync(first);
+        verify(queueClient).completeAsync(second);
+    }
+
+    @Test
+    public void completeAll_should_throw_exception_when_any_completion_fails() {
+        ServiceBusException exceptionToThrow = new ServiceBusException(true);
+        CompletableFuture<Void> failedCompletion = new CompletableFuture<>();
+        failedCompletion.completeExceptionally(exceptionToThrow);
+        given(queueClient.completeAsync(any())).willReturn(failedCompletion);
+
+        assertThatThrownBy(() ->
+            messageOperations.completeAll(ImmutableList.of(UUID.randomUUID()))
+        ).isSameAs(exceptionToThrow);
+    }
+
+    @Test
+    public void should_settle_messages_with_receiver_in_batch_receive_mode() throws Exception {
+        MessageOperations batchMessageOperations = new MessageOperations(queueClient, receiver, true);
+        UUID lockToken = UUID.randomUUID();
+
+        batchMessageOperations.complete(lockToken);
+        batchMessageOperations.deadLetter(lockToken, "reason", "description");
+
+        verify(receiver).complete(lockToken);
+        verify(receiver).deadLetter(lockToken, "reason", "description");
+        verifyNoMoreInteractions(queueClient);
+    }
+
+    @Test
+    public void abandon_should_call_queue_client() throws Exception {
+        UUID lockToken = UUID.randomUUID();
+
+        messageOperations.abandon(lockToken);
+
+        verify(queueClient).abandon(lockToken);
+        verifyNoMoreInteractions(queueClient);
+    }
 }
@@ -1,6 +1,5 @@
 package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.servicebus.Message;
 import com.microsoft.azure.servicebus.QueueClient;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
@@ -31,7 +30,7 @@ public class ProcessedEnvelopeNotifierTest {
 
     @Before
     public void setUp() {
-        notifier = new ProcessedEnvelopeNotifier(queueClient, new ObjectMapper());
+        notifier = new ProcessedEnvelopeNotifier(queueClient);
     }
 
     @Test
@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.bulkscan.orchestrator.services.servicebus;
+
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.azure.servicebus.Message;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedeliveryPolicyTest {
+
+    private final RedeliveryPolicy policy = new RedeliveryPolicy(Duration.ofSeconds(5), Duration.ofMinutes(1), 3);
+
+    @Test
+    public void should_double_the_delay_with_each_redelivery_up_to_the_maximum() {
+        assertThat(policy.delay(0)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(policy.delay(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(policy.delay(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(policy.delay(4)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(policy.delay(100)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void should_allow_redelivery_until_the_limit_is_reached() {
+        assertThat(policy.canRedeliver(2)).isTrue();
+        assertThat(policy.canRedeliver(3)).isFalse();
+    }
+
+    @Test
+    public void should_read_redelivery_count_from_message_properties() {
+        Message redelivered = new Message("body");
+        redelivered.setProperties(ImmutableMap.of(RedeliveryPolicy.REDELIVERY_COUNT_PROPERTY, "2"));
+
+        assertThat(policy.redeliveryCount(redelivered)).isEqualTo(2);
+        assertThat(policy.redeliveryCount(new Message("body"))).isZero();
+    }
+}